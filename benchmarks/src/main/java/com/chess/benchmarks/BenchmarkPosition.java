@@ -0,0 +1,84 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardValues;
+import com.chess.engine.board.CastlingRights;
+import com.chess.engine.board.EncodedMove;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.user.MoveTransition;
+
+//Fixed positions every benchmark runs over, so numbers stay comparable between commits
+public enum BenchmarkPosition {
+
+    //Ruy Lopez after 3...a6
+    OPENING {
+        @Override
+        public Board create() {
+            return playMoves("e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6");
+        }
+    },
+    //Queen's Gambit Declined, both sides castled and all pieces still on the board
+    MIDDLEGAME {
+        @Override
+        public Board create() {
+            return playMoves("d2d4", "d7d5", "c2c4", "e7e6", "b1c3", "g8f6", "c1g5", "f8e7",
+                    "e2e3", "e8g8", "g1f3", "b8d7", "a1c1", "c7c6", "f1d3", "d5c4",
+                    "d3c4", "f6d5", "g5e7", "d8e7", "e1g1", "d5c3");
+        }
+    },
+    //queen, rook and minor piece with pawns for each side
+    ENDGAME {
+        @Override
+        public Board create() {
+            final Board.Builder builder = new Board.Builder();
+            setPieces(builder, Color.WHITE, PieceType.KING, "g2");
+            setPieces(builder, Color.WHITE, PieceType.QUEEN, "c2");
+            setPieces(builder, Color.WHITE, PieceType.ROOK, "d1");
+            setPieces(builder, Color.WHITE, PieceType.BISHOP, "e3");
+            setPieces(builder, Color.WHITE, PieceType.PAWN, "a3", "b4", "f2", "g3", "h2");
+            setPieces(builder, Color.BLACK, PieceType.KING, "f8");
+            setPieces(builder, Color.BLACK, PieceType.QUEEN, "e7");
+            setPieces(builder, Color.BLACK, PieceType.ROOK, "c8");
+            setPieces(builder, Color.BLACK, PieceType.KNIGHT, "d5");
+            setPieces(builder, Color.BLACK, PieceType.PAWN, "a6", "b5", "f7", "g6", "h5");
+            builder.setMoveMaker(Color.WHITE);
+            builder.setCastlingRights(CastlingRights.NONE);
+            return builder.build();
+        }
+    };
+
+    public abstract Board create();
+
+    //plays coordinate notation moves from the standard position
+    private static Board playMoves(final String... moves) {
+        Board board = Board.createStandardBoard();
+        for(final String notation : moves) {
+            board = playMove(board, notation);
+        }
+        return board;
+    }
+
+    private static Board playMove(final Board board, final String notation) {
+        for(final Move move : board.currentPlayer().getLegalMoves()) {
+            if(EncodedMove.toString(move.encode()).equals(notation)) {
+                final MoveTransition transition = board.currentPlayer().makeMove(move);
+                if(transition.getMoveStatus().isDone()) {
+                    return transition.getTransitionBoard();
+                }
+            }
+        }
+        throw new IllegalStateException("Illegal benchmark move " + notation);
+    }
+
+    private static void setPieces(final Board.Builder builder,
+                                  final Color color,
+                                  final PieceType pieceType,
+                                  final String... positions) {
+        for(final String position : positions) {
+            builder.setPiece(Piece.createPiece(pieceType, color, BoardValues.getCoordinateAtPosition(position)));
+        }
+    }
+}
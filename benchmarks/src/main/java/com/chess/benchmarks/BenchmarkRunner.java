@@ -0,0 +1,28 @@
+package com.chess.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+//Runs the suite with the gc profiler attached, so every result comes with gc.alloc.rate.norm
+//(bytes allocated per operation). Accepts the usual jmh command line options, e.g.
+//java -jar benchmarks/target/benchmarks.jar MoveBenchmark -p position=ENDGAME
+public class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        final OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLineOptions);
+        if(commandLineOptions.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+        }
+        final Options options = builder.addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+}
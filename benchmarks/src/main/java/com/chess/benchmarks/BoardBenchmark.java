@@ -0,0 +1,77 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Fen;
+import com.chess.engine.pieces.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Board construction, from the standard setup, from a list of pieces and from FEN, and FEN writing
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BoardBenchmark {
+
+    @Param
+    private BenchmarkPosition position;
+
+    private List<Piece> pieces;
+    private Color moveMaker;
+    private int castlingRights;
+    private Board board;
+    private String fen;
+
+    @Setup
+    public void setUp() {
+        final Board board = this.position.create();
+        this.pieces = new ArrayList<>(board.getWhitePieces());
+        this.pieces.addAll(board.getBlackPieces());
+        this.moveMaker = board.currentPlayer().getColor();
+        this.castlingRights = board.getCastlingRights();
+        this.board = board;
+        this.fen = Fen.toFen(board);
+    }
+
+    @Benchmark
+    public Board createStandardBoard() {
+        return Board.createStandardBoard();
+    }
+
+    @Benchmark
+    public Board builderBuild() {
+        final Board.Builder builder = new Board.Builder();
+        for(final Piece piece : this.pieces) {
+            builder.setPiece(piece);
+        }
+        builder.setMoveMaker(this.moveMaker);
+        builder.setCastlingRights(this.castlingRights);
+        return builder.build();
+    }
+
+    @Benchmark
+    public Board.Builder parseFen() {
+        return Fen.parse(this.fen);
+    }
+
+    @Benchmark
+    public String toFen() {
+        return Fen.toFen(this.board);
+    }
+}
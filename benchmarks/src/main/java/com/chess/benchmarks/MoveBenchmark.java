@@ -0,0 +1,72 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.user.MoveTransition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//Executing and creating moves, every invocation takes the next legal move of the position
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MoveBenchmark {
+
+    @Param
+    private BenchmarkPosition position;
+
+    private Board board;
+    private Move[] moves;
+    private int[] encodedMoves;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        this.board = this.position.create();
+        this.moves = this.board.currentPlayer().getLegalMoves().toArray(new Move[0]);
+        this.encodedMoves = new int[this.moves.length];
+        for(int i = 0; i < this.moves.length; i++) {
+            this.encodedMoves[i] = this.moves[i].encode();
+        }
+    }
+
+    private int nextIndex() {
+        this.index = this.index + 1 == this.moves.length ? 0 : this.index + 1;
+        return this.index;
+    }
+
+    @Benchmark
+    public Board execute() {
+        return this.moves[nextIndex()].execute();
+    }
+
+    @Benchmark
+    public MoveTransition makeMove() {
+        return this.board.currentPlayer().makeMove(this.moves[nextIndex()]);
+    }
+
+    @Benchmark
+    public Move createMoveFromCoordinates() {
+        final Move move = this.moves[nextIndex()];
+        return Move.MoveFactory.createMove(this.board, move.getCurrentCoordinate(), move.getDestinationCoordinate());
+    }
+
+    @Benchmark
+    public Move createMoveFromEncoding() {
+        return Move.MoveFactory.createMove(this.board, this.encodedMoves[nextIndex()]);
+    }
+}
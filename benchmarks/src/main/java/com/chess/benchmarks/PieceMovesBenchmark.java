@@ -0,0 +1,67 @@
+package com.chess.benchmarks;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Piece.calculateLegalMoves for one piece type, cycling over every piece of that type on the board
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class PieceMovesBenchmark {
+
+    @Param
+    private BenchmarkPosition position;
+
+    @Param
+    private Piece.PieceType pieceType;
+
+    private Board board;
+    private Piece[] pieces;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        this.board = this.position.create();
+        final List<Piece> typePieces = new ArrayList<>();
+        for(final Piece piece : this.board.getWhitePieces()) {
+            if(piece.getPieceType() == this.pieceType) {
+                typePieces.add(piece);
+            }
+        }
+        for(final Piece piece : this.board.getBlackPieces()) {
+            if(piece.getPieceType() == this.pieceType) {
+                typePieces.add(piece);
+            }
+        }
+        if(typePieces.isEmpty()) {
+            throw new IllegalStateException("No " + this.pieceType + " in " + this.position);
+        }
+        this.pieces = typePieces.toArray(new Piece[0]);
+    }
+
+    @Benchmark
+    public Collection<Move> calculateLegalMoves() {
+        this.index = this.index + 1 == this.pieces.length ? 0 : this.index + 1;
+        return this.pieces[this.index].calculateLegalMoves(this.board);
+    }
+}
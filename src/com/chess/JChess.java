@@ -2,9 +2,22 @@ package com.chess;
 
 import com.chess.engine.board.Board;
 import com.chess.gui.Interface;
+import com.chess.uci.UciEngine;
+
+import java.io.IOException;
 
 public class JChess {
-    public static void main(String[] args) {
+    //usage: JChess [uci], without arguments the game opens in a window, with uci the engine
+    //talks UCI over standard input and output and never touches the window toolkit
+    public static void main(String[] args) throws IOException {
+        if(args.length > 0 && args[0].equals("uci")) {
+            UciEngine.main(args);
+            return;
+        }
+        startInterface();
+    }
+
+    private static void startInterface() {
         Board board = Board.createStandardBoard();
 
         System.out.println(board);
@@ -0,0 +1,272 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Color;
+import com.chess.engine.pieces.Piece;
+
+//bit i of every bitboard corresponds to tile coordinate i (0 = top left, 63 = bottom right)
+public class BitBoards {
+
+    public static final long EMPTY = 0L;
+
+    public static final long FIRST_COLUMN = initColumnMask(0);
+    public static final long EIGHTH_COLUMN = initColumnMask(7);
+    public static final long SECOND_ROW = initRowMask(1);
+    public static final long SEVENTH_ROW = initRowMask(6);
+
+    //number of piece bitboards, one per piece type and color
+    public static final int NUM_PIECE_BITBOARDS = 12;
+
+    public static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[][]{
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}});
+    public static final long[] KING_ATTACKS = initLeaperAttacks(new int[][]{
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}});
+    //indexed by [color.ordinal()][tile coordinate]
+    public static final long[][] PAWN_ATTACKS = {
+            initLeaperAttacks(new int[][]{{-1, -1}, {-1, 1}}),
+            initLeaperAttacks(new int[][]{{1, -1}, {1, 1}})};
+
+    //tiles strictly between two aligned tiles, empty if they share no row, column or diagonal
+    public static final long[][] BETWEEN = new long[BoardValues.NUM_TILES][BoardValues.NUM_TILES];
+    //the whole row, column or diagonal through two aligned tiles, empty if not aligned
+    public static final long[][] LINE = new long[BoardValues.NUM_TILES][BoardValues.NUM_TILES];
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    //magic multipliers found offline for this tile numbering, every one maps its relevant
+    //occupancy subsets onto a 2^bits table without destructive collisions
+    private static final long[] ROOK_MAGICS = {
+            0x0080002288124001L, 0x1080200040001085L, 0x8200082442001080L, 0x4080100080040802L,
+            0x0080040080080002L, 0x2100010002040008L, 0x3080008001000200L, 0x4200082104008146L,
+            0x0000802040008008L, 0x2802804000200081L, 0x008E004200A09081L, 0x9600800800801000L,
+            0x3021000800100500L, 0x0554800400804200L, 0x0002000102000804L, 0x0002000412006081L,
+            0x0040248000804000L, 0x0000404000201000L, 0x1088410011082000L, 0x0001010010002008L,
+            0x3008018024000880L, 0x0200808004000200L, 0x0440440062411008L, 0x0805020000942041L,
+            0x0000400180008020L, 0x2000210200420080L, 0x0820002080801000L, 0x0090008080080014L,
+            0x4030050100080011L, 0x1049000900040002L, 0x1018020400011008L, 0x100C040200004081L,
+            0x0800408102002208L, 0x0010004000C02001L, 0x0050080020200400L, 0x5400800802801000L,
+            0xC0A0800400800800L, 0x0026001002000409L, 0x0020100144002842L, 0x4002010C420001A4L,
+            0x0000208140118001L, 0x2000810200520020L, 0x8040100020008080L, 0x0000120040220008L,
+            0x0100040008008080L, 0x4845040002008080L, 0x0410040200010100L, 0x0000810048A20004L,
+            0x0800400080002080L, 0x0020002080400080L, 0x002000D008004140L, 0x1010040040080040L,
+            0x0011011104080100L, 0x0008800400020080L, 0x6A08080281500400L, 0x00080481204C1200L,
+            0x0002002210488102L, 0x101A004100102086L, 0x00005080A042013AL, 0x0A20211000050009L,
+            0x0082002004100802L, 0x6041000802040001L, 0x0260300112080084L, 0x0200008044082102L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x1804480848002140L, 0x0410111A06820800L, 0x0A21010400800484L, 0x0224404280406000L,
+            0x3C02021040000100L, 0x0081100805000005L, 0x12C4026210042004L, 0x2200808810902400L,
+            0x0000200304010400L, 0x0400902108010042L, 0x0000220200420020L, 0x000AE82190A02080L,
+            0x0000242420040028L, 0x4010020110081001L, 0x0001020090080880L, 0x40E2218400921040L,
+            0x2005402004100200L, 0x02085020C1012200L, 0x0002011000260120L, 0x0910922802004001L,
+            0x0009000820080821L, 0x0842000D08010400L, 0x4004000121082200L, 0x0930218104026200L,
+            0x0002404020940490L, 0x0001200124180212L, 0x8400500001040080L, 0x00EC010804010004L,
+            0x4001010010104000L, 0x022408202100A000L, 0x0008062021012104L, 0x31008080002A0800L,
+            0x0C04104000040430L, 0x0061080203081080L, 0x000200240C020800L, 0x4000C00808008201L,
+            0x00C0010010650040L, 0x0201081320020200L, 0x0002044407044220L, 0x6805020130408400L,
+            0x0008040460004610L, 0x8000880110000880L, 0x448201610C002042L, 0x00040C1414012800L,
+            0x4000485100425402L, 0x0020109302000042L, 0x42104A0E24009040L, 0x40840D0265002200L,
+            0x0002082248A40100L, 0x0002020209AC4400L, 0x2110430098111040L, 0x0002001820880000L,
+            0x0008104009064001L, 0x2046458810010100L, 0x4004B0340812A100L, 0x0048100102002808L,
+            0x4000410801012080L, 0x214000411401A000L, 0x000000C700880488L, 0x40090000C0420205L,
+            0xA08440001002020CL, 0x6500080820080690L, 0x0802681250042100L, 0x0004310408208500L
+    };
+
+    private static final long[] ROOK_MASKS = initRelevantOccupancyMasks(ROOK_DIRECTIONS);
+    private static final long[] BISHOP_MASKS = initRelevantOccupancyMasks(BISHOP_DIRECTIONS);
+    private static final int[] ROOK_SHIFTS = initShifts(ROOK_MASKS);
+    private static final int[] BISHOP_SHIFTS = initShifts(BISHOP_MASKS);
+    private static final int[] ROOK_OFFSETS = initOffsets(ROOK_MASKS);
+    private static final int[] BISHOP_OFFSETS = initOffsets(BISHOP_MASKS);
+    //every square's attack sets are stored back to back, starting at its offset
+    private static final long[] ROOK_ATTACKS = initSlidingAttackTable(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS,
+            ROOK_SHIFTS, ROOK_OFFSETS);
+    private static final long[] BISHOP_ATTACKS = initSlidingAttackTable(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS,
+            BISHOP_SHIFTS, BISHOP_OFFSETS);
+
+    static {
+        initLines(ROOK_DIRECTIONS);
+        initLines(BISHOP_DIRECTIONS);
+    }
+
+    private BitBoards() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static long squareMask(final int coordinate) {
+        return 1L << coordinate;
+    }
+
+    public static boolean isSet(final long bitBoard, final int coordinate) {
+        return (bitBoard & (1L << coordinate)) != 0;
+    }
+
+    //index of a piece bitboard, white pieces first
+    public static int pieceIndex(final Piece.PieceType pieceType, final Color color) {
+        return color.ordinal() * 6 + pieceType.ordinal();
+    }
+
+    public static long rookAttacks(final int coordinate, final long occupancy) {
+        return ROOK_ATTACKS[ROOK_OFFSETS[coordinate] +
+                (int) (((occupancy & ROOK_MASKS[coordinate]) * ROOK_MAGICS[coordinate]) >>> ROOK_SHIFTS[coordinate])];
+    }
+
+    public static long bishopAttacks(final int coordinate, final long occupancy) {
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[coordinate] +
+                (int) (((occupancy & BISHOP_MASKS[coordinate]) * BISHOP_MAGICS[coordinate]) >>> BISHOP_SHIFTS[coordinate])];
+    }
+
+    public static long queenAttacks(final int coordinate, final long occupancy) {
+        return rookAttacks(coordinate, occupancy) | bishopAttacks(coordinate, occupancy);
+    }
+
+    //looks backwards from the tile: an attacker stands wherever the same piece standing on the tile could capture
+    public static long attackersTo(final int coordinate,
+                                   final Color attacker,
+                                   final long[] pieceBitBoards,
+                                   final long occupancy) {
+        final long queens = pieceBitBoards[pieceIndex(Piece.PieceType.QUEEN, attacker)];
+        return (PAWN_ATTACKS[1 - attacker.ordinal()][coordinate] & pieceBitBoards[pieceIndex(Piece.PieceType.PAWN, attacker)]) |
+                (KNIGHT_ATTACKS[coordinate] & pieceBitBoards[pieceIndex(Piece.PieceType.KNIGHT, attacker)]) |
+                (bishopAttacks(coordinate, occupancy) & (pieceBitBoards[pieceIndex(Piece.PieceType.BISHOP, attacker)] | queens)) |
+                (rookAttacks(coordinate, occupancy) & (pieceBitBoards[pieceIndex(Piece.PieceType.ROOK, attacker)] | queens)) |
+                (KING_ATTACKS[coordinate] & pieceBitBoards[pieceIndex(Piece.PieceType.KING, attacker)]);
+    }
+
+    //same as attackersTo but stops at the first hit, cheapest lookups first
+    public static boolean isSquareAttacked(final int coordinate,
+                                           final Color attacker,
+                                           final long[] pieceBitBoards,
+                                           final long occupancy) {
+        if ((PAWN_ATTACKS[1 - attacker.ordinal()][coordinate] & pieceBitBoards[pieceIndex(Piece.PieceType.PAWN, attacker)]) != 0 ||
+            (KNIGHT_ATTACKS[coordinate] & pieceBitBoards[pieceIndex(Piece.PieceType.KNIGHT, attacker)]) != 0 ||
+            (KING_ATTACKS[coordinate] & pieceBitBoards[pieceIndex(Piece.PieceType.KING, attacker)]) != 0) {
+            return true;
+        }
+        final long queens = pieceBitBoards[pieceIndex(Piece.PieceType.QUEEN, attacker)];
+        return (bishopAttacks(coordinate, occupancy) & (pieceBitBoards[pieceIndex(Piece.PieceType.BISHOP, attacker)] | queens)) != 0 ||
+               (rookAttacks(coordinate, occupancy) & (pieceBitBoards[pieceIndex(Piece.PieceType.ROOK, attacker)] | queens)) != 0;
+    }
+
+    //walks each ray until it leaves the board or hits an occupied tile (which is included),
+    //only used to fill the magic tables
+    private static long slidingAttacks(final int coordinate, final long occupancy, final int[][] directions) {
+        long attacks = EMPTY;
+        for (final int[] direction : directions) {
+            int row = coordinate / BoardValues.NUM_TILES_PER_ROW + direction[0];
+            int column = coordinate % BoardValues.NUM_TILES_PER_ROW + direction[1];
+            while (isOnBoard(row, column)) {
+                final long square = 1L << (row * BoardValues.NUM_TILES_PER_ROW + column);
+                attacks |= square;
+                if ((occupancy & square) != 0) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isOnBoard(final int row, final int column) {
+        return row >= 0 && row < BoardValues.NUM_TILES_PER_ROW && column >= 0 && column < BoardValues.NUM_TILES_PER_ROW;
+    }
+
+    private static void initLines(final int[][] directions) {
+        for (int i = 0; i < BoardValues.NUM_TILES; i++) {
+            for (final int[] direction : directions) {
+                final long line = slidingAttacks(i, EMPTY, new int[][]{direction}) |
+                        slidingAttacks(i, EMPTY, new int[][]{{-direction[0], -direction[1]}}) | (1L << i);
+                long between = EMPTY;
+                int row = i / BoardValues.NUM_TILES_PER_ROW + direction[0];
+                int column = i % BoardValues.NUM_TILES_PER_ROW + direction[1];
+                while (isOnBoard(row, column)) {
+                    final int coordinate = row * BoardValues.NUM_TILES_PER_ROW + column;
+                    BETWEEN[i][coordinate] = between;
+                    LINE[i][coordinate] = line;
+                    between |= 1L << coordinate;
+                    row += direction[0];
+                    column += direction[1];
+                }
+            }
+        }
+    }
+
+    //tiles whose occupancy can change the attack set: every ray without its last tile
+    private static long[] initRelevantOccupancyMasks(final int[][] directions) {
+        final long[] masks = new long[BoardValues.NUM_TILES];
+        for (int i = 0; i < BoardValues.NUM_TILES; i++) {
+            for (final int[] direction : directions) {
+                int row = i / BoardValues.NUM_TILES_PER_ROW + direction[0];
+                int column = i % BoardValues.NUM_TILES_PER_ROW + direction[1];
+                while (isOnBoard(row + direction[0], column + direction[1])) {
+                    masks[i] |= 1L << (row * BoardValues.NUM_TILES_PER_ROW + column);
+                    row += direction[0];
+                    column += direction[1];
+                }
+            }
+        }
+        return masks;
+    }
+
+    private static int[] initShifts(final long[] masks) {
+        final int[] shifts = new int[BoardValues.NUM_TILES];
+        for (int i = 0; i < BoardValues.NUM_TILES; i++) {
+            shifts[i] = Long.SIZE - Long.bitCount(masks[i]);
+        }
+        return shifts;
+    }
+
+    private static int[] initOffsets(final long[] masks) {
+        final int[] offsets = new int[BoardValues.NUM_TILES + 1];
+        for (int i = 0; i < BoardValues.NUM_TILES; i++) {
+            offsets[i + 1] = offsets[i] + (1 << Long.bitCount(masks[i]));
+        }
+        return offsets;
+    }
+
+    private static long[] initSlidingAttackTable(final int[][] directions,
+                                                 final long[] masks,
+                                                 final long[] magics,
+                                                 final int[] shifts,
+                                                 final int[] offsets) {
+        final long[] table = new long[offsets[BoardValues.NUM_TILES]];
+        for (int i = 0; i < BoardValues.NUM_TILES; i++) {
+            //enumerate every subset of the mask (carry-rippler)
+            long occupancy = EMPTY;
+            do {
+                final int index = offsets[i] + (int) ((occupancy * magics[i]) >>> shifts[i]);
+                table[index] = slidingAttacks(i, occupancy, directions);
+                occupancy = (occupancy - masks[i]) & masks[i];
+            } while (occupancy != EMPTY);
+        }
+        return table;
+    }
+
+    private static long[] initLeaperAttacks(final int[][] offsets) {
+        final long[] attacks = new long[BoardValues.NUM_TILES];
+        for (int i = 0; i < BoardValues.NUM_TILES; i++) {
+            for (final int[] offset : offsets) {
+                final int row = i / BoardValues.NUM_TILES_PER_ROW + offset[0];
+                final int column = i % BoardValues.NUM_TILES_PER_ROW + offset[1];
+                if (isOnBoard(row, column)) {
+                    attacks[i] |= 1L << (row * BoardValues.NUM_TILES_PER_ROW + column);
+                }
+            }
+        }
+        return attacks;
+    }
+
+    private static long initColumnMask(final int columnNumber) {
+        long mask = EMPTY;
+        for (int i = columnNumber; i < BoardValues.NUM_TILES; i += BoardValues.NUM_TILES_PER_ROW) {
+            mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    private static long initRowMask(final int rowNumber) {
+        return 0xFFL << (rowNumber * BoardValues.NUM_TILES_PER_ROW);
+    }
+}
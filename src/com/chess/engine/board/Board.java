@@ -12,8 +12,15 @@ import java.util.*;
 
 public class Board {
 
-    private final Map<Integer, Piece> boardConfig;
-    private final List<Tile> gameBoard;
+    //mailbox view, one entry per tile coordinate
+    private final Piece[] boardConfig;
+    //bitboard core, one long per piece type and color plus occupancy masks
+    private final long[] pieceBitBoards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final long allOccupancy;
+    //tiles are only needed by the GUI, so they are created on first request
+    private final Tile[] gameBoard;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
 
@@ -21,19 +28,36 @@ public class Board {
     private final BlackPlayer blackPlayer;
     private final Player currentPlayer;
     private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long zobristKey;
 
     private Board(final Builder builder) {
-        this.boardConfig = Collections.unmodifiableMap(builder.boardConfig);
-        this.gameBoard = createGameBoard(builder);
+        this.boardConfig = new Piece[BoardValues.NUM_TILES];
+        this.pieceBitBoards = new long[BitBoards.NUM_PIECE_BITBOARDS];
+        for(final Piece piece : builder.boardConfig){
+            if(piece == null){
+                continue;
+            }
+            this.boardConfig[piece.getPiecePosition()] = piece;
+            this.pieceBitBoards[BitBoards.pieceIndex(piece.getPieceType(), piece.getPieceAlliance())] |=
+                    BitBoards.squareMask(piece.getPiecePosition());
+        }
+        this.whiteOccupancy = calculateOccupancy(this.pieceBitBoards, Color.WHITE);
+        this.blackOccupancy = calculateOccupancy(this.pieceBitBoards, Color.BLACK);
+        this.allOccupancy = this.whiteOccupancy | this.blackOccupancy;
+        this.gameBoard = new Tile[BoardValues.NUM_TILES];
         this.enPassantPawn = builder.enPassantPawn;
-        this.whitePieces = calculateActivePieces(this.gameBoard, Color.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Color.BLACK);
-
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
+        this.castlingRights = builder.castlingRights;
+        //moves hand over an incrementally updated key, hand built positions are hashed from scratch
+        this.zobristKey = builder.hasZobristKey ? builder.zobristKey :
+                Zobrist.calculateKey(this.pieceBitBoards, builder.nextMoveMaker, this.castlingRights,
+                        getEnPassantCoordinate());
+        this.whitePieces = calculateActivePieces(this.boardConfig, this.whiteOccupancy);
+        this.blackPieces = calculateActivePieces(this.boardConfig, this.blackOccupancy);
+
+        //legal moves are generated by the players on first request
+        this.whitePlayer = new WhitePlayer(this);
+        this.blackPlayer = new BlackPlayer(this);
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
     }
 
@@ -42,7 +66,7 @@ public class Board {
     public String toString() {
         final StringBuilder builder = new StringBuilder();
         for(int i = 0; i < BoardValues.NUM_TILES; i++){
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = getTile(i).toString();
             builder.append(String.format("%3s", tileText));
             if((i+1)% BoardValues.NUM_TILES_PER_ROW == 0){
                 builder.append("\n");
@@ -51,6 +75,28 @@ public class Board {
         return builder.toString();
     }
 
+    @Override
+    public boolean equals(final Object other) {
+        if(this == other){
+            return true;
+        }
+        if(!(other instanceof Board)){
+            return false;
+        }
+        final Board otherBoard = (Board) other;
+        //the key rejects almost every mismatch, the remaining fields rule out collisions
+        return this.zobristKey == otherBoard.zobristKey &&
+                this.castlingRights == otherBoard.castlingRights &&
+                this.currentPlayer.getColor() == otherBoard.currentPlayer.getColor() &&
+                getEnPassantCoordinate() == otherBoard.getEnPassantCoordinate() &&
+                Arrays.equals(this.pieceBitBoards, otherBoard.pieceBitBoards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.zobristKey);
+    }
+
     public Player whitePlayer(){
         return this.whitePlayer;
     }
@@ -66,8 +112,41 @@ public class Board {
 		return this.enPassantPawn;
 	}
 
-        public Piece getPiece(final int coordinate) {
-        return this.boardConfig.get(coordinate);
+    private int getEnPassantCoordinate() {
+        return this.enPassantPawn != null ? this.enPassantPawn.getPiecePosition() : -1;
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public Piece getPiece(final int coordinate) {
+        return this.boardConfig[coordinate];
+    }
+
+    public long getPieceBitBoard(final Piece.PieceType pieceType, final Color color) {
+        return this.pieceBitBoards[BitBoards.pieceIndex(pieceType, color)];
+    }
+
+    public long getOccupancy(final Color color) {
+        return color.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    public long getOccupancy() {
+        return this.allOccupancy;
+    }
+
+    public boolean isTileOccupied(final int coordinate) {
+        return BitBoards.isSet(this.allOccupancy, coordinate);
+    }
+
+    //reverse lookup from the tile through the knight, king and pawn tables and the slider rays
+    public boolean isSquareAttacked(final int coordinate, final Color attacker) {
+        return BitBoards.isSquareAttacked(coordinate, attacker, this.pieceBitBoards, this.allOccupancy);
     }
 
     //returning moves of each pieces
@@ -80,7 +159,7 @@ public class Board {
     }
 
 
-    private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
+    public Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
 
         final List<Move> legalMoves = new ArrayList<>();
 
@@ -90,34 +169,49 @@ public class Board {
         return ImmutableList.copyOf(legalMoves);
     }
 
+    //strictly legal moves of the player to move, from the pin and check aware generator
+    public Collection<Move> calculateStrictlyLegalMoves() {
+        final SearchBoard searchBoard = new SearchBoard(this);
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int count = MoveGenerator.generateLegalMoves(searchBoard, moves);
+        final List<Move> legalMoves = new ArrayList<>(count);
+        for(int i = 0; i < count; i++){
+            legalMoves.add(Move.MoveFactory.createMove(this, moves[i]));
+        }
+        return ImmutableList.copyOf(legalMoves);
+    }
+
     //keeping track of pieces
-    private static Collection<Piece> calculateActivePieces(List<Tile> gameBoard,
-                                                           Color color) {
+    private static Collection<Piece> calculateActivePieces(final Piece[] boardConfig,
+                                                           final long occupancy) {
 
-        final List<Piece> activePieces = new ArrayList<>();
+        final List<Piece> activePieces = new ArrayList<>(Long.bitCount(occupancy));
 
-        for(final Tile tile : gameBoard){
-            if(tile.isTileOccupied()){
-                final Piece piece = tile.getPiece();
-                if(piece.getPieceAlliance() == color){
-                    activePieces.add(piece);
-                }
-            }
+        long remaining = occupancy;
+        while(remaining != 0){
+            activePieces.add(boardConfig[Long.numberOfTrailingZeros(remaining)]);
+            remaining &= remaining - 1;
         }
         return ImmutableList.copyOf(activePieces);
     }
 
-
-    private static List<Tile> createGameBoard(Builder builder) {
-        final Tile[] tiles = new Tile[BoardValues.NUM_TILES];
-        for(int i = 0; i < BoardValues.NUM_TILES; i++){
-            tiles[i] = Tile.createTile(i, builder.boardConfig.get(i)); //creating a tile for boardConfig
+    private static long calculateOccupancy(final long[] pieceBitBoards,
+                                           final Color color) {
+        long occupancy = BitBoards.EMPTY;
+        for(final Piece.PieceType pieceType : Piece.PieceType.values()){
+            occupancy |= pieceBitBoards[BitBoards.pieceIndex(pieceType, color)];
         }
-        return ImmutableList.copyOf(tiles);
+        return occupancy;
     }
 
-       public Tile getTile(final int tileCoordinate){
-        return gameBoard.get(tileCoordinate);
+    //tiles are immutable, threads racing on an empty slot just create equal tiles
+    public Tile getTile(final int tileCoordinate){
+        Tile tile = this.gameBoard[tileCoordinate];
+        if(tile == null){
+            tile = Tile.createTile(tileCoordinate, this.boardConfig[tileCoordinate]);
+            this.gameBoard[tileCoordinate] = tile;
+        }
+        return tile;
     }
 
     public static Board createStandardBoard(){
@@ -161,6 +255,7 @@ public class Board {
         builder.setPiece(new Rook(Color.WHITE, 63));
         //white to move
         builder.setMoveMaker(Color.WHITE);
+        builder.setCastlingRights(CastlingRights.ALL);
         //build the board
         return builder.build();
 
@@ -177,18 +272,21 @@ public class Board {
         //help build an instance of a board
         //builder allows to create less error prone code by creating all board fields in builder class
 
-        //Match Tile id to Piece id
-        Map<Integer, Piece> boardConfig;
+        //Match Tile id to Piece id, a plain array so building a board boxes nothing
+        final Piece[] boardConfig;
         Color nextMoveMaker;
         Pawn enPassantPawn;
+        int castlingRights;
+        long zobristKey;
+        boolean hasZobristKey;
         private Move transitionMove;
 
         public Builder(){
-            this.boardConfig = new HashMap<>();
+            this.boardConfig = new Piece[BoardValues.NUM_TILES];
         }
 
         public Builder setPiece(final Piece piece) {
-            this.boardConfig.put(piece.getPiecePosition(), piece); //associating piece ID to Tile
+            this.boardConfig[piece.getPiecePosition()] = piece; //associating piece ID to Tile
             return this;
         }
 
@@ -206,6 +304,18 @@ public class Board {
             this.enPassantPawn = enPassantPawn;
         }
 
+        public Builder setCastlingRights(final int castlingRights) {
+            this.castlingRights = castlingRights;
+            return this;
+        }
+
+        //only moves set the key, they derive it from the previous board
+        Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            this.hasZobristKey = true;
+            return this;
+        }
+
         public Builder setMoveTransition(final Move transitionMove) {
             this.transitionMove = transitionMove;
             return this;
@@ -19,6 +19,9 @@ public class BoardValues {
     public static final int NUM_TILES = 64; //All number of tiles
     public static final int NUM_TILES_PER_ROW = 8;//Tiles per row
 
+    //algebraic name of every coordinate, a8 is coordinate 0 and h1 is 63
+    private static final String[] ALGEBRAIC_NOTATION = initAlgebraicNotation();
+
 
     private BoardValues() {
         throw new RuntimeException("Exception");
@@ -44,7 +47,32 @@ public class BoardValues {
     }
 
 
+    private static String[] initAlgebraicNotation() {
+        final String[] notation = new String[NUM_TILES];
+        for(int i = 0; i < NUM_TILES; i++){
+            notation[i] = "" + (char) ('a' + i % NUM_TILES_PER_ROW) + (NUM_TILES_PER_ROW - i / NUM_TILES_PER_ROW);
+        }
+        return notation;
+    }
+
     public static boolean isValidTileCoordinate(final int coordinate){
         return coordinate >= 0 && coordinate < 64;
     }
+
+    public static String getPositionAtCoordinate(final int coordinate){
+        return ALGEBRAIC_NOTATION[coordinate];
+    }
+
+    //-1 if the text is not a tile name
+    public static int getCoordinateAtPosition(final String position){
+        if(position.length() != 2){
+            return -1;
+        }
+        final int column = position.charAt(0) - 'a';
+        final int row = NUM_TILES_PER_ROW - (position.charAt(1) - '0');
+        if(column < 0 || column >= NUM_TILES_PER_ROW || row < 0 || row >= NUM_TILES_PER_ROW){
+            return -1;
+        }
+        return row * NUM_TILES_PER_ROW + column;
+    }
 }
@@ -0,0 +1,39 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+
+//castling rights are kept as four flags packed into an int
+public class CastlingRights {
+
+    public static final int NONE = 0;
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL = WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+
+    //rights that survive a move touching the given tile, either leaving it or landing on it
+    private static final int[] UPDATE_MASKS = initUpdateMasks();
+
+    private CastlingRights() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static int update(final int castlingRights,
+                             final int currentCoordinate,
+                             final int destinationCoordinate) {
+        return castlingRights & UPDATE_MASKS[currentCoordinate] & UPDATE_MASKS[destinationCoordinate];
+    }
+
+    private static int[] initUpdateMasks() {
+        final int[] masks = new int[BoardValues.NUM_TILES];
+        Arrays.fill(masks, ALL);
+        masks[0] &= ~BLACK_QUEEN_SIDE;
+        masks[4] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        masks[7] &= ~BLACK_KING_SIDE;
+        masks[56] &= ~WHITE_QUEEN_SIDE;
+        masks[60] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        masks[63] &= ~WHITE_KING_SIDE;
+        return masks;
+    }
+}
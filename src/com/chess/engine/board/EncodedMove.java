@@ -0,0 +1,124 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece;
+
+//Moves packed into a single int so the search can keep them in plain int[] buffers:
+//  bits  0- 5 current coordinate       bits 16-19 captured piece index
+//  bits  6-11 destination coordinate   bits 20-23 promotion piece index
+//  bits 12-15 moved piece index        bits 24-26 flags
+//Piece indices are the ones of BitBoards.pieceIndex, NO_PIECE_BITS marks an absent piece.
+public class EncodedMove {
+
+    public static final int NO_MOVE = 0;
+
+    public static final int QUIET = 0;
+    public static final int PAWN_JUMP = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int CASTLING = 4;
+
+    private static final int COORDINATE_MASK = 0x3F;
+    private static final int PIECE_MASK = 0xF;
+    private static final int NO_PIECE_BITS = 0xF;
+    private static final int FLAG_MASK = 0x7;
+
+    private static final int DESTINATION_SHIFT = 6;
+    private static final int MOVED_PIECE_SHIFT = 12;
+    private static final int CAPTURED_PIECE_SHIFT = 16;
+    private static final int PROMOTION_PIECE_SHIFT = 20;
+    private static final int FLAG_SHIFT = 24;
+
+    private static final int NO_CAPTURE_NO_PROMOTION =
+            NO_PIECE_BITS << CAPTURED_PIECE_SHIFT | NO_PIECE_BITS << PROMOTION_PIECE_SHIFT;
+
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+    private EncodedMove() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    //captured and promotion pieces take SearchBoard.NO_PIECE when absent
+    public static int create(final int currentCoordinate,
+                             final int destinationCoordinate,
+                             final int movedPiece,
+                             final int capturedPiece,
+                             final int promotionPiece,
+                             final int flags) {
+        return currentCoordinate |
+                destinationCoordinate << DESTINATION_SHIFT |
+                movedPiece << MOVED_PIECE_SHIFT |
+                (capturedPiece & PIECE_MASK) << CAPTURED_PIECE_SHIFT |
+                (promotionPiece & PIECE_MASK) << PROMOTION_PIECE_SHIFT |
+                flags << FLAG_SHIFT;
+    }
+
+    public static int createQuiet(final int currentCoordinate,
+                                  final int destinationCoordinate,
+                                  final int movedPiece) {
+        return currentCoordinate |
+                destinationCoordinate << DESTINATION_SHIFT |
+                movedPiece << MOVED_PIECE_SHIFT |
+                NO_CAPTURE_NO_PROMOTION;
+    }
+
+    public static int getCurrentCoordinate(final int move) {
+        return move & COORDINATE_MASK;
+    }
+
+    public static int getDestinationCoordinate(final int move) {
+        return (move >>> DESTINATION_SHIFT) & COORDINATE_MASK;
+    }
+
+    public static int getMovedPiece(final int move) {
+        return (move >>> MOVED_PIECE_SHIFT) & PIECE_MASK;
+    }
+
+    public static int getCapturedPiece(final int move) {
+        final int capturedPiece = (move >>> CAPTURED_PIECE_SHIFT) & PIECE_MASK;
+        return capturedPiece == NO_PIECE_BITS ? SearchBoard.NO_PIECE : capturedPiece;
+    }
+
+    public static int getPromotionPiece(final int move) {
+        final int promotionPiece = (move >>> PROMOTION_PIECE_SHIFT) & PIECE_MASK;
+        return promotionPiece == NO_PIECE_BITS ? SearchBoard.NO_PIECE : promotionPiece;
+    }
+
+    public static int getFlags(final int move) {
+        return (move >>> FLAG_SHIFT) & FLAG_MASK;
+    }
+
+    public static boolean isCapture(final int move) {
+        return ((move >>> CAPTURED_PIECE_SHIFT) & PIECE_MASK) != NO_PIECE_BITS;
+    }
+
+    public static boolean isPromotion(final int move) {
+        return ((move >>> PROMOTION_PIECE_SHIFT) & PIECE_MASK) != NO_PIECE_BITS;
+    }
+
+    public static boolean isPawnJump(final int move) {
+        return (getFlags(move) & PAWN_JUMP) != 0;
+    }
+
+    public static boolean isEnPassant(final int move) {
+        return (getFlags(move) & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastling(final int move) {
+        return (getFlags(move) & CASTLING) != 0;
+    }
+
+    public static Piece.PieceType getMovedPieceType(final int move) {
+        return PIECE_TYPES[getMovedPiece(move) % PIECE_TYPES.length];
+    }
+
+    //coordinate notation, e.g. e2e4 or e7e8q
+    public static String toString(final int move) {
+        if (move == NO_MOVE) {
+            return "0000";
+        }
+        final String notation = BoardValues.getPositionAtCoordinate(getCurrentCoordinate(move)) +
+                BoardValues.getPositionAtCoordinate(getDestinationCoordinate(move));
+        return isPromotion(move) ?
+                notation + PIECE_TYPES[getPromotionPiece(move) % PIECE_TYPES.length].toString().toLowerCase() :
+                notation;
+    }
+}
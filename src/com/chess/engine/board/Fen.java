@@ -0,0 +1,280 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Color;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+//Forsyth-Edwards Notation in and out of Board.Builder:
+//  <placement> <side to move> <castling> <en passant> <half moves> <full moves>
+//Batch jobs load millions of positions this way, so the parser walks the record once by index,
+//without splitting or regular expressions, and only allocates the pieces, the builder and
+//the bitboards it checks the position on.
+//The board keeps no move counters: they are checked when parsing and given when writing.
+public final class Fen {
+
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    //longest placement plus the other fields, so writing never grows the buffer
+    private static final int MAX_LENGTH = 100;
+
+    private Fen() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    //A builder set up with the position of the record, null if it is malformed. Placement and
+    //side to move are required, the other fields may be left off, and whatever follows the
+    //en passant field in an EPD record (operations instead of counters) is ignored.
+    public static Board.Builder parse(final CharSequence fen) {
+        final int placement = nextField(fen, 0);
+        final int placementEnd = fieldEnd(fen, placement);
+        final int side = nextField(fen, placementEnd);
+        final int sideEnd = fieldEnd(fen, side);
+        final int castling = nextField(fen, sideEnd);
+        final int castlingEnd = fieldEnd(fen, castling);
+        final int enPassant = nextField(fen, castlingEnd);
+        final int enPassantEnd = fieldEnd(fen, enPassant);
+        if (sideEnd - side != 1) {
+            return null;
+        }
+        final Color moveMaker = fen.charAt(side) == 'w' ? Color.WHITE : fen.charAt(side) == 'b' ? Color.BLACK : null;
+        final int castlingRights = parseCastlingRights(fen, castling, castlingEnd);
+        if (moveMaker == null || castlingRights < 0 || !hasMoveCounters(fen, enPassantEnd)) {
+            return null;
+        }
+        final Board.Builder builder = new Board.Builder();
+        final long[] pieceBitBoards = new long[BitBoards.NUM_PIECE_BITBOARDS];
+        if (!parsePlacement(fen, placement, placementEnd, castlingRights, builder, pieceBitBoards)) {
+            return null;
+        }
+        //the side that just moved can not have left its king in check
+        final Color opponent = moveMaker.isWhite() ? Color.BLACK : Color.WHITE;
+        long occupancy = 0L;
+        for (final long pieceBitBoard : pieceBitBoards) {
+            occupancy |= pieceBitBoard;
+        }
+        if (BitBoards.isSquareAttacked(Long.numberOfTrailingZeros(pieceBitBoards[BitBoards.pieceIndex(PieceType.KING, opponent)]),
+                moveMaker, pieceBitBoards, occupancy)) {
+            return null;
+        }
+        builder.setMoveMaker(moveMaker);
+        builder.setCastlingRights(castlingRights);
+        if (enPassantEnd - enPassant == 2) {
+            final int column = fen.charAt(enPassant) - 'a';
+            //the tile a pawn jumped over, on the third row seen from its side
+            final int row = fen.charAt(enPassant + 1) == '3' ? 5 : fen.charAt(enPassant + 1) == '6' ? 2 : -1;
+            if (column < 0 || column >= BoardValues.NUM_TILES_PER_ROW || row < 0) {
+                return null;
+            }
+            final Color jumped = moveMaker.isWhite() ? Color.BLACK : Color.WHITE;
+            final int pawnCoordinate = (row + jumped.getDirection()) * BoardValues.NUM_TILES_PER_ROW + column;
+            final Piece pawn = builder.boardConfig[pawnCoordinate];
+            //some writers name the tile after every pawn jump, only a pawn that is there counts
+            if (pawn != null && pawn.getPieceType() == PieceType.PAWN && pawn.getPieceAlliance() == jumped) {
+                builder.setEnPassantPawn((Pawn) pawn);
+            }
+        } else if ((enPassantEnd - enPassant == 1 && fen.charAt(enPassant) != '-') || enPassantEnd - enPassant > 2) {
+            return null;
+        }
+        return builder;
+    }
+
+    //the record with the move counters of a new game
+    public static String toFen(final Board board) {
+        return toFen(board, 0, 1);
+    }
+
+    public static String toFen(final Board board, final int halfMoveClock, final int fullMoveNumber) {
+        final StringBuilder builder = new StringBuilder(MAX_LENGTH);
+        for (int row = 0; row < BoardValues.NUM_TILES_PER_ROW; row++) {
+            if (row > 0) {
+                builder.append('/');
+            }
+            int emptyTiles = 0;
+            for (int column = 0; column < BoardValues.NUM_TILES_PER_ROW; column++) {
+                final Piece piece = board.getPiece(row * BoardValues.NUM_TILES_PER_ROW + column);
+                if (piece == null) {
+                    emptyTiles++;
+                    continue;
+                }
+                if (emptyTiles > 0) {
+                    builder.append((char) ('0' + emptyTiles));
+                    emptyTiles = 0;
+                }
+                final char letter = piece.getPieceType().toString().charAt(0);
+                builder.append(piece.getPieceAlliance().isWhite() ? letter : Character.toLowerCase(letter));
+            }
+            if (emptyTiles > 0) {
+                builder.append((char) ('0' + emptyTiles));
+            }
+        }
+        builder.append(board.currentPlayer().getColor().isWhite() ? " w " : " b ");
+        final int castlingRights = board.getCastlingRights();
+        if (castlingRights == CastlingRights.NONE) {
+            builder.append('-');
+        }
+        appendIfSet(builder, castlingRights, CastlingRights.WHITE_KING_SIDE, 'K');
+        appendIfSet(builder, castlingRights, CastlingRights.WHITE_QUEEN_SIDE, 'Q');
+        appendIfSet(builder, castlingRights, CastlingRights.BLACK_KING_SIDE, 'k');
+        appendIfSet(builder, castlingRights, CastlingRights.BLACK_QUEEN_SIDE, 'q');
+        builder.append(' ');
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn == null) {
+            builder.append('-');
+        } else {
+            //the tile behind the pawn, seen from its side
+            builder.append(BoardValues.getPositionAtCoordinate(enPassantPawn.getPiecePosition() -
+                    enPassantPawn.getPieceAlliance().getDirection() * BoardValues.NUM_TILES_PER_ROW));
+        }
+        return builder.append(' ').append(halfMoveClock).append(' ').append(fullMoveNumber).toString();
+    }
+
+    //Ranks from 8 down to 1, each from column a to h, one king of each color and no pawn on the
+    //outer ranks. The pieces also go into the bitboards, for the check test.
+    private static boolean parsePlacement(final CharSequence fen,
+                                          final int start,
+                                          final int end,
+                                          final int castlingRights,
+                                          final Board.Builder builder,
+                                          final long[] pieceBitBoards) {
+        int coordinate = 0;
+        int rowEnd = BoardValues.NUM_TILES_PER_ROW;
+        int whiteKings = 0;
+        int blackKings = 0;
+        for (int i = start; i < end; i++) {
+            final char c = fen.charAt(i);
+            if (c == '/') {
+                if (coordinate != rowEnd || rowEnd == BoardValues.NUM_TILES) {
+                    return false;
+                }
+                rowEnd += BoardValues.NUM_TILES_PER_ROW;
+                continue;
+            }
+            if (c >= '1' && c <= '8') {
+                coordinate += c - '0';
+                if (coordinate > rowEnd) {
+                    return false;
+                }
+                continue;
+            }
+            final PieceType pieceType = pieceType(Character.toLowerCase(c));
+            if (pieceType == null || coordinate >= rowEnd) {
+                return false;
+            }
+            //a pawn on the first or last rank has no moves and would have promoted
+            if (pieceType == PieceType.PAWN &&
+                (coordinate < BoardValues.NUM_TILES_PER_ROW || coordinate >= BoardValues.NUM_TILES - BoardValues.NUM_TILES_PER_ROW)) {
+                return false;
+            }
+            final Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+            if (pieceType == PieceType.KING) {
+                if (color.isWhite()) {
+                    whiteKings++;
+                } else {
+                    blackKings++;
+                }
+            }
+            pieceBitBoards[BitBoards.pieceIndex(pieceType, color)] |= BitBoards.squareMask(coordinate);
+            builder.setPiece(Piece.createPiece(pieceType, color, coordinate,
+                    SearchBoard.isFirstMove(pieceType, color, coordinate, castlingRights)));
+            coordinate++;
+        }
+        return coordinate == BoardValues.NUM_TILES && whiteKings == 1 && blackKings == 1;
+    }
+
+    //-1 if the field is malformed, a missing field has no rights
+    private static int parseCastlingRights(final CharSequence fen, final int start, final int end) {
+        if (end == start || end - start == 1 && fen.charAt(start) == '-') {
+            return CastlingRights.NONE;
+        }
+        int castlingRights = CastlingRights.NONE;
+        for (int i = start; i < end; i++) {
+            switch (fen.charAt(i)) {
+                case 'K':
+                    castlingRights |= CastlingRights.WHITE_KING_SIDE;
+                    break;
+                case 'Q':
+                    castlingRights |= CastlingRights.WHITE_QUEEN_SIDE;
+                    break;
+                case 'k':
+                    castlingRights |= CastlingRights.BLACK_KING_SIDE;
+                    break;
+                case 'q':
+                    castlingRights |= CastlingRights.BLACK_QUEEN_SIDE;
+                    break;
+                default:
+                    return -1;
+            }
+        }
+        return castlingRights;
+    }
+
+    //Counters, when there are any, are two plain numbers, a half move clock and a full move
+    //number from 1 on. A field that does not start with a digit begins the EPD operations.
+    private static boolean hasMoveCounters(final CharSequence fen, final int from) {
+        final int halfMoves = nextField(fen, from);
+        final int halfMovesEnd = fieldEnd(fen, halfMoves);
+        if (halfMoves == halfMovesEnd || !Character.isDigit(fen.charAt(halfMoves))) {
+            return true;
+        }
+        final int fullMoves = nextField(fen, halfMovesEnd);
+        final int fullMovesEnd = fieldEnd(fen, fullMoves);
+        return isNumber(fen, halfMoves, halfMovesEnd) && isNumber(fen, fullMoves, fullMovesEnd) &&
+                (fullMovesEnd - fullMoves > 1 || fen.charAt(fullMoves) != '0');
+    }
+
+    private static boolean isNumber(final CharSequence fen, final int start, final int end) {
+        //ten digits may not fit an int any more
+        if (end == start || end - start > 9) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(fen.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //index of the next field at or after from, the length if there is none
+    private static int nextField(final CharSequence fen, final int from) {
+        int i = from;
+        while (i < fen.length() && Character.isWhitespace(fen.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int fieldEnd(final CharSequence fen, final int start) {
+        int i = start;
+        while (i < fen.length() && !Character.isWhitespace(fen.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static PieceType pieceType(final char c) {
+        switch (c) {
+            case 'p':
+                return PieceType.PAWN;
+            case 'n':
+                return PieceType.KNIGHT;
+            case 'b':
+                return PieceType.BISHOP;
+            case 'r':
+                return PieceType.ROOK;
+            case 'q':
+                return PieceType.QUEEN;
+            case 'k':
+                return PieceType.KING;
+            default:
+                return null;
+        }
+    }
+
+    private static void appendIfSet(final StringBuilder builder, final int castlingRights, final int right, final char letter) {
+        if ((castlingRights & right) != 0) {
+            builder.append(letter);
+        }
+    }
+}
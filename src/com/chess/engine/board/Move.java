@@ -1,8 +1,10 @@
 package com.chess.engine.board;
 
+import com.chess.engine.Color;
 import com.chess.engine.board.Board.Builder;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Rook;
 
 public abstract class Move {
 
@@ -46,17 +48,79 @@ public abstract class Move {
         return null;
     }
 
+    //moves are equal when they move the same piece the same way, whichever board generated them
+    @Override
+    public boolean equals(final Object other) {
+        if(this == other){
+            return true;
+        }
+        if(!(other instanceof Move)){
+            return false;
+        }
+        return encode() == ((Move) other).encode();
+    }
+
+    @Override
+    public int hashCode() {
+        return encode();
+    }
+
+    //compact form understood by SearchBoard and the move generators
+    public int encode(){
+        final Piece attackedPiece = getAttackedPiece();
+        return EncodedMove.create(getCurrentCoordinate(), this.destinationCoordinate,
+                BitBoards.pieceIndex(this.movedPiece.getPieceType(), this.movedPiece.getPieceAlliance()),
+                attackedPiece != null ?
+                        BitBoards.pieceIndex(attackedPiece.getPieceType(), attackedPiece.getPieceAlliance()) :
+                        SearchBoard.NO_PIECE,
+                getPromotionPieceIndex(), getEncodingFlags());
+    }
+
+    int getEncodingFlags(){
+        return EncodedMove.QUIET;
+    }
+
+    int getPromotionPieceIndex(){
+        return SearchBoard.NO_PIECE;
+    }
+
     //stream is used to process collection of element
     public Board execute() {
         final Board.Builder builder = new Builder();
         this.board.currentPlayer().getActivePieces().stream().filter(piece -> !this.movedPiece.equals(piece)).forEach(builder::setPiece);
         this.board.currentPlayer().getOpponent().getActivePieces().forEach(builder::setPiece);
-        builder.setPiece(this.movedPiece.movePiece(this));
+        final Piece movedPieceAfterMove = this.movedPiece.movePiece(this);
+        builder.setPiece(movedPieceAfterMove);
         builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+        final int castlingRights = calculateCastlingRights();
+        builder.setCastlingRights(castlingRights);
+        builder.setZobristKey(calculateZobristKey(movedPieceAfterMove, castlingRights, null));
         builder.setMoveTransition(this);
         return builder.build();
     }
 
+    int calculateCastlingRights() {
+        return CastlingRights.update(this.board.getCastlingRights(), getCurrentCoordinate(), this.destinationCoordinate);
+    }
+
+    //updates the previous board's key with only what this move changes
+    long calculateZobristKey(final Piece movedPieceAfterMove,
+                             final int castlingRights,
+                             final Pawn enPassantPawn) {
+        long key = this.board.getZobristKey();
+        key ^= Zobrist.pieceKey(this.movedPiece) ^ Zobrist.pieceKey(movedPieceAfterMove);
+        final Piece attackedPiece = getAttackedPiece();
+        if (attackedPiece != null) {
+            key ^= Zobrist.pieceKey(attackedPiece);
+        }
+        key ^= Zobrist.castlingKey(this.board.getCastlingRights()) ^ Zobrist.castlingKey(castlingRights);
+        final Pawn previousEnPassantPawn = this.board.getEnPassantPawn();
+        key ^= Zobrist.enPassantKey(previousEnPassantPawn != null ? previousEnPassantPawn.getPiecePosition() : -1);
+        key ^= Zobrist.enPassantKey(enPassantPawn != null ? enPassantPawn.getPiecePosition() : -1);
+        key ^= Zobrist.sideToMoveKey(Color.WHITE) ^ Zobrist.sideToMoveKey(Color.BLACK);
+        return key;
+    }
+
     public static final class MajorMove extends Move {
 
         public MajorMove(final Board board,
@@ -84,8 +148,12 @@ public abstract class Move {
             final Board.Builder builder = new Builder();
             this.board.currentPlayer().getActivePieces().stream().filter(piece -> !this.movedPiece.equals(piece)).forEach(builder::setPiece);
             this.board.currentPlayer().getOpponent().getActivePieces().stream().filter(piece -> !piece.equals(this.getAttackedPiece())).forEach(builder::setPiece);
-            builder.setPiece(this.movedPiece.movePiece(this));
+            final Piece movedPieceAfterMove = this.movedPiece.movePiece(this);
+            builder.setPiece(movedPieceAfterMove);
             builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+            final int castlingRights = calculateCastlingRights();
+            builder.setCastlingRights(castlingRights);
+            builder.setZobristKey(calculateZobristKey(movedPieceAfterMove, castlingRights, null));
             builder.setMoveTransition(this);
             return builder.build();
         }
@@ -129,6 +197,11 @@ public abstract class Move {
                                        final Piece attackedPiece) {
             super(board, movedPiece, destinationCoordinate, attackedPiece);
         }
+
+        @Override
+        int getEncodingFlags() {
+            return EncodedMove.EN_PASSANT;
+        }
     }
 
     public static final class PawnJump extends Move {
@@ -155,9 +228,131 @@ public abstract class Move {
 		builder.setPiece(movedPawn);
 		builder.setEnPassantPawn(movedPawn);
 		builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+		final int castlingRights = calculateCastlingRights();
+		builder.setCastlingRights(castlingRights);
+		builder.setZobristKey(calculateZobristKey(movedPawn, castlingRights, movedPawn));
 		return builder.build();
 
         }
+
+        @Override
+        int getEncodingFlags() {
+            return EncodedMove.PAWN_JUMP;
+        }
+    }
+
+    public static final class PawnPromotion extends Move {
+
+        final Piece attackedPiece;
+        final Piece.PieceType promotionType;
+
+        public PawnPromotion(final Board board,
+                             final Piece movedPiece,
+                             final int destinationCoordinate,
+                             final Piece attackedPiece,
+                             final Piece.PieceType promotionType) {
+            super(board, movedPiece, destinationCoordinate);
+            this.attackedPiece = attackedPiece;
+            this.promotionType = promotionType;
+        }
+
+        @Override
+        public Board execute() {
+            final Builder builder = new Builder();
+            for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
+                if (!this.movedPiece.equals(piece)) {
+                    builder.setPiece(piece);
+                }
+            }
+            for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
+                if (!piece.equals(this.attackedPiece)) {
+                    builder.setPiece(piece);
+                }
+            }
+            // the pawn is replaced by the promotion piece
+            final Piece promotedPiece = Piece.createPiece(this.promotionType, this.movedPiece.getPieceAlliance(),
+                    this.destinationCoordinate, false);
+            builder.setPiece(promotedPiece);
+            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+            final int castlingRights = calculateCastlingRights();
+            builder.setCastlingRights(castlingRights);
+            builder.setZobristKey(calculateZobristKey(promotedPiece, castlingRights, null));
+            builder.setMoveTransition(this);
+            return builder.build();
+        }
+
+        @Override
+        public boolean isAttack() {
+            return this.attackedPiece != null;
+        }
+
+        @Override
+        public Piece getAttackedPiece() {
+            return this.attackedPiece;
+        }
+
+        public Piece.PieceType getPromotionType() {
+            return this.promotionType;
+        }
+
+        @Override
+        int getPromotionPieceIndex() {
+            return BitBoards.pieceIndex(this.promotionType, this.movedPiece.getPieceAlliance());
+        }
+    }
+
+    public static final class CastleMove extends Move {
+
+        final Rook castleRook;
+        final int castleRookDestination;
+
+        public CastleMove(final Board board,
+                          final Piece movedKing,
+                          final int destinationCoordinate,
+                          final Rook castleRook,
+                          final int castleRookDestination) {
+            super(board, movedKing, destinationCoordinate);
+            this.castleRook = castleRook;
+            this.castleRookDestination = castleRookDestination;
+        }
+
+        @Override
+        public Board execute() {
+            final Builder builder = new Builder();
+            for (final Piece piece : this.board.currentPlayer().getActivePieces()) {
+                if (!this.movedPiece.equals(piece) && !this.castleRook.equals(piece)) {
+                    builder.setPiece(piece);
+                }
+            }
+            for (final Piece piece : this.board.currentPlayer().getOpponent().getActivePieces()) {
+                builder.setPiece(piece);
+            }
+            final Piece movedKing = this.movedPiece.movePiece(this);
+            final Rook movedRook = new Rook(this.castleRook.getPieceAlliance(), this.castleRookDestination, false);
+            builder.setPiece(movedKing);
+            builder.setPiece(movedRook);
+            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getColor());
+            final int castlingRights = calculateCastlingRights();
+            builder.setCastlingRights(castlingRights);
+            builder.setZobristKey(calculateZobristKey(movedKing, castlingRights, null) ^
+                    Zobrist.pieceKey(this.castleRook) ^ Zobrist.pieceKey(movedRook));
+            builder.setMoveTransition(this);
+            return builder.build();
+        }
+
+        @Override
+        public boolean isCastlingMove() {
+            return true;
+        }
+
+        public Rook getCastleRook() {
+            return this.castleRook;
+        }
+
+        @Override
+        int getEncodingFlags() {
+            return EncodedMove.CASTLING;
+        }
     }
 
     public static class NullMove extends Move {
@@ -170,6 +365,16 @@ public abstract class Move {
         public Board execute(){
             throw new RuntimeException("Cannot execute the null move!");
         }
+
+        @Override
+        public int getCurrentCoordinate() {
+            return -1;
+        }
+
+        @Override
+        public int encode() {
+            return EncodedMove.NO_MOVE;
+        }
     }
 
     public static class MoveFactory{
@@ -188,5 +393,45 @@ public abstract class Move {
             }
             return NULL_MOVE;
         }
+
+        //decoding layer: rebuilds the board's move object for a move produced by the search
+        public static Move createMove(final Board board,
+                                      final int encodedMove){
+            final int currentCoordinate = EncodedMove.getCurrentCoordinate(encodedMove);
+            final int destinationCoordinate = EncodedMove.getDestinationCoordinate(encodedMove);
+            final Piece movedPiece = board.getPiece(currentCoordinate);
+            if(encodedMove == EncodedMove.NO_MOVE || movedPiece == null){
+                return NULL_MOVE;
+            }
+            if(EncodedMove.isCastling(encodedMove)){
+                final boolean kingSide = destinationCoordinate > currentCoordinate;
+                final Piece castleRook = board.getPiece(kingSide ? currentCoordinate + 3 : currentCoordinate - 4);
+                if(!(castleRook instanceof Rook)){
+                    return NULL_MOVE;
+                }
+                return new CastleMove(board, movedPiece, destinationCoordinate, (Rook) castleRook,
+                        kingSide ? currentCoordinate + 1 : currentCoordinate - 1);
+            }
+            final Piece attackedPiece = EncodedMove.isEnPassant(encodedMove) ?
+                    board.getEnPassantPawn() : board.getPiece(destinationCoordinate);
+            if(EncodedMove.isPromotion(encodedMove)){
+                return new PawnPromotion(board, movedPiece, destinationCoordinate, attackedPiece,
+                        Piece.PieceType.values()[EncodedMove.getPromotionPiece(encodedMove) % Piece.PieceType.values().length]);
+            }
+            if(movedPiece.getPieceType() == Piece.PieceType.PAWN){
+                if(EncodedMove.isPawnJump(encodedMove)){
+                    return new PawnJump(board, movedPiece, destinationCoordinate);
+                }
+                if(EncodedMove.isEnPassant(encodedMove)){
+                    return new PawnEnPassantAttackMove(board, movedPiece, destinationCoordinate, attackedPiece);
+                }
+                return attackedPiece != null ?
+                        new PawnAttackMove(board, movedPiece, destinationCoordinate, attackedPiece) :
+                        new PawnMove(board, movedPiece, destinationCoordinate);
+            }
+            return attackedPiece != null ?
+                    new AttackMove(board, movedPiece, destinationCoordinate, attackedPiece) :
+                    new MajorMove(board, movedPiece, destinationCoordinate);
+        }
     }
 }
@@ -0,0 +1,461 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Color;
+import com.chess.engine.pieces.Piece.PieceType;
+
+//Generates encoded moves for a SearchBoard straight into a caller supplied int[] buffer,
+//searches keep one buffer per ply so the hot path does not allocate.
+public class MoveGenerator {
+
+    //no legal chess position has more moves than this
+    public static final int MAX_MOVES = 256;
+
+    //kinds of legal moves to generate
+    private static final int CAPTURES = 1;
+    private static final int QUIETS = 2;
+    private static final int ALL = CAPTURES | QUIETS;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    private MoveGenerator() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    //moves that follow the piece rules but may leave the own king in check, returns the number of moves written
+    public static int generatePseudoLegalMoves(final SearchBoard board, final int[] moves) {
+        final Color color = board.getMoveMaker();
+        final long ownOccupancy = board.getOccupancy(color);
+        final long occupancy = board.getOccupancy();
+        int count = generatePawnMoves(board, moves, 0);
+        count = generatePieceMoves(board, moves, count, PieceType.KNIGHT, ~ownOccupancy, occupancy);
+        count = generatePieceMoves(board, moves, count, PieceType.BISHOP, ~ownOccupancy, occupancy);
+        count = generatePieceMoves(board, moves, count, PieceType.ROOK, ~ownOccupancy, occupancy);
+        count = generatePieceMoves(board, moves, count, PieceType.QUEEN, ~ownOccupancy, occupancy);
+        count = generatePieceMoves(board, moves, count, PieceType.KING, ~ownOccupancy, occupancy);
+        return generateCastlingMoves(board, moves, count);
+    }
+
+    //Only legal moves. Pinned pieces and checkers are worked out first: in double check only the king
+    //may move, in single check the other pieces must capture the checker or block its ray, and a pinned
+    //piece stays on the line through its king. No move has to be made to test it.
+    public static int generateLegalMoves(final SearchBoard board, final int[] moves) {
+        return generateLegalMoves(board, moves, ALL);
+    }
+
+    //legal captures and promotions, what a quiescence search looks at
+    public static int generateLegalCaptures(final SearchBoard board, final int[] moves) {
+        return generateLegalMoves(board, moves, CAPTURES);
+    }
+
+    //legal moves that neither capture nor promote, including castling
+    public static int generateLegalQuiets(final SearchBoard board, final int[] moves) {
+        return generateLegalMoves(board, moves, QUIETS);
+    }
+
+    //Whether a move from elsewhere, e.g. the transposition table or a sibling position, is legal here.
+    //The move has to fit the pieces on the board exactly, then it is made to test the king.
+    public static boolean isLegal(final SearchBoard board, final int move) {
+        if (move == EncodedMove.NO_MOVE) {
+            return false;
+        }
+        final Color color = board.getMoveMaker();
+        final int currentCoordinate = EncodedMove.getCurrentCoordinate(move);
+        final int destinationCoordinate = EncodedMove.getDestinationCoordinate(move);
+        final int movedPiece = EncodedMove.getMovedPiece(move);
+        final int capturedPiece = EncodedMove.getCapturedPiece(move);
+        final int promotionPiece = EncodedMove.getPromotionPiece(move);
+        if (board.getPieceIndex(currentCoordinate) != movedPiece || movedPiece / PIECE_TYPES.length != color.ordinal()) {
+            return false;
+        }
+        final PieceType pieceType = PIECE_TYPES[movedPiece % PIECE_TYPES.length];
+        if (EncodedMove.isCastling(move)) {
+            //castling checks every tile the king crosses itself
+            return pieceType == PieceType.KING && capturedPiece == SearchBoard.NO_PIECE &&
+                   Math.abs(destinationCoordinate - currentCoordinate) == 2 &&
+                   canCastle(board, destinationCoordinate > currentCoordinate);
+        }
+        if (EncodedMove.isEnPassant(move)) {
+            if (pieceType != PieceType.PAWN || destinationCoordinate != board.getEnPassantCoordinate() ||
+                !BitBoards.isSet(BitBoards.PAWN_ATTACKS[color.ordinal()][currentCoordinate], destinationCoordinate)) {
+                return false;
+            }
+        } else if (board.getPieceIndex(destinationCoordinate) != capturedPiece ||
+                   (capturedPiece != SearchBoard.NO_PIECE && capturedPiece / PIECE_TYPES.length == color.ordinal()) ||
+                   !isPseudoLegalDestination(board, move, pieceType, color)) {
+            return false;
+        }
+        if ((promotionPiece != SearchBoard.NO_PIECE) != (pieceType == PieceType.PAWN && isLastRow(destinationCoordinate)) ||
+            (promotionPiece != SearchBoard.NO_PIECE && !isPromotionPiece(promotionPiece, color))) {
+            return false;
+        }
+        board.makeMove(move);
+        final boolean legal = !board.isOpponentKingAttacked();
+        board.unmakeMove();
+        return legal;
+    }
+
+    private static boolean isPseudoLegalDestination(final SearchBoard board,
+                                                    final int move,
+                                                    final PieceType pieceType,
+                                                    final Color color) {
+        final int currentCoordinate = EncodedMove.getCurrentCoordinate(move);
+        final int destinationCoordinate = EncodedMove.getDestinationCoordinate(move);
+        if (pieceType != PieceType.PAWN) {
+            return EncodedMove.getFlags(move) == EncodedMove.QUIET &&
+                   BitBoards.isSet(attacks(pieceType, currentCoordinate, board.getOccupancy()), destinationCoordinate);
+        }
+        final int forwardOffset = color.getDirection() * BoardValues.NUM_TILES_PER_ROW;
+        if (EncodedMove.isPawnJump(move)) {
+            final long startingRow = color.isWhite() ? BitBoards.SEVENTH_ROW : BitBoards.SECOND_ROW;
+            return BitBoards.isSet(startingRow, currentCoordinate) &&
+                   destinationCoordinate == currentCoordinate + 2 * forwardOffset &&
+                   board.getPieceIndex(currentCoordinate + forwardOffset) == SearchBoard.NO_PIECE &&
+                   board.getPieceIndex(destinationCoordinate) == SearchBoard.NO_PIECE;
+        }
+        if (EncodedMove.getFlags(move) != EncodedMove.QUIET) {
+            return false;
+        }
+        //a pawn captures diagonally and pushes onto an empty tile
+        return EncodedMove.isCapture(move) ?
+                BitBoards.isSet(BitBoards.PAWN_ATTACKS[color.ordinal()][currentCoordinate], destinationCoordinate) :
+                destinationCoordinate == currentCoordinate + forwardOffset;
+    }
+
+    private static boolean isPromotionPiece(final int piece, final Color color) {
+        for (final PieceType promotionType : PROMOTION_TYPES) {
+            if (piece == BitBoards.pieceIndex(promotionType, color)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int generateLegalMoves(final SearchBoard board, final int[] moves, final int kinds) {
+        final Color color = board.getMoveMaker();
+        final Color opponent = color.isWhite() ? Color.BLACK : Color.WHITE;
+        final int kingCoordinate = board.getKingCoordinate(color);
+        final long ownOccupancy = board.getOccupancy(color);
+        final long occupancy = board.getOccupancy();
+        final long checkers = board.attackersTo(kingCoordinate, opponent);
+        //tiles the wanted kinds of moves may go to, pawns sort out their moves themselves
+        final long kindTargets = ((kinds & CAPTURES) != 0 ? board.getOccupancy(opponent) : BitBoards.EMPTY) |
+                ((kinds & QUIETS) != 0 ? ~occupancy : BitBoards.EMPTY);
+
+        int count = generateKingMoves(board, moves, 0, kingCoordinate, kindTargets, opponent);
+        if (Long.bitCount(checkers) > 1) {
+            return count;
+        }
+
+        final long evasionTargets = checkers == 0 ? ~ownOccupancy :
+                checkers | BitBoards.BETWEEN[kingCoordinate][Long.numberOfTrailingZeros(checkers)];
+        final long targets = evasionTargets & kindTargets;
+        final long pinned = calculatePinnedPieces(board, kingCoordinate, color, opponent);
+        count = generateLegalPawnMoves(board, moves, count, evasionTargets, pinned, kingCoordinate, opponent, kinds);
+        count = generateLegalPieceMoves(board, moves, count, PieceType.KNIGHT, targets, pinned, kingCoordinate, occupancy);
+        count = generateLegalPieceMoves(board, moves, count, PieceType.BISHOP, targets, pinned, kingCoordinate, occupancy);
+        count = generateLegalPieceMoves(board, moves, count, PieceType.ROOK, targets, pinned, kingCoordinate, occupancy);
+        count = generateLegalPieceMoves(board, moves, count, PieceType.QUEEN, targets, pinned, kingCoordinate, occupancy);
+        if (checkers == 0 && (kinds & QUIETS) != 0) {
+            count = generateCastlingMoves(board, moves, count);
+        }
+        return count;
+    }
+
+    //own pieces that are the only blocker between the king and an enemy slider
+    public static long calculatePinnedPieces(final SearchBoard board,
+                                             final int kingCoordinate,
+                                             final Color color,
+                                             final Color opponent) {
+        final long enemyQueens = board.getPieceBitBoard(PieceType.QUEEN, opponent);
+        long snipers = (BitBoards.rookAttacks(kingCoordinate, BitBoards.EMPTY) &
+                (board.getPieceBitBoard(PieceType.ROOK, opponent) | enemyQueens)) |
+                (BitBoards.bishopAttacks(kingCoordinate, BitBoards.EMPTY) &
+                (board.getPieceBitBoard(PieceType.BISHOP, opponent) | enemyQueens));
+        final long occupancy = board.getOccupancy();
+        final long ownOccupancy = board.getOccupancy(color);
+        long pinned = BitBoards.EMPTY;
+        while (snipers != 0) {
+            final int sniperCoordinate = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            final long blockers = BitBoards.BETWEEN[kingCoordinate][sniperCoordinate] & occupancy;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & ownOccupancy) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private static int generateKingMoves(final SearchBoard board,
+                                         final int[] moves,
+                                         int count,
+                                         final int kingCoordinate,
+                                         final long targets,
+                                         final Color opponent) {
+        final int king = board.getPieceIndex(kingCoordinate);
+        //the king must not hide from a slider on the ray behind itself
+        final long occupancyWithoutKing = board.getOccupancy() & ~BitBoards.squareMask(kingCoordinate);
+        long destinations = BitBoards.KING_ATTACKS[kingCoordinate] & targets;
+        while (destinations != 0) {
+            final int destinationCoordinate = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            if (!board.isSquareAttacked(destinationCoordinate, opponent, occupancyWithoutKing)) {
+                moves[count++] = EncodedMove.create(kingCoordinate, destinationCoordinate, king,
+                        board.getPieceIndex(destinationCoordinate), SearchBoard.NO_PIECE, EncodedMove.QUIET);
+            }
+        }
+        return count;
+    }
+
+    private static int generateLegalPieceMoves(final SearchBoard board,
+                                               final int[] moves,
+                                               int count,
+                                               final PieceType pieceType,
+                                               final long targets,
+                                               final long pinned,
+                                               final int kingCoordinate,
+                                               final long occupancy) {
+        final int movedPiece = BitBoards.pieceIndex(pieceType, board.getMoveMaker());
+        long pieces = board.getPieceBitBoard(pieceType, board.getMoveMaker());
+        while (pieces != 0) {
+            final int currentCoordinate = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long destinations = attacks(pieceType, currentCoordinate, occupancy) & targets;
+            if (BitBoards.isSet(pinned, currentCoordinate)) {
+                destinations &= BitBoards.LINE[kingCoordinate][currentCoordinate];
+            }
+            while (destinations != 0) {
+                final int destinationCoordinate = Long.numberOfTrailingZeros(destinations);
+                destinations &= destinations - 1;
+                moves[count++] = EncodedMove.create(currentCoordinate, destinationCoordinate, movedPiece,
+                        board.getPieceIndex(destinationCoordinate), SearchBoard.NO_PIECE, EncodedMove.QUIET);
+            }
+        }
+        return count;
+    }
+
+    private static int generateLegalPawnMoves(final SearchBoard board,
+                                              final int[] moves,
+                                              int count,
+                                              final long targets,
+                                              final long pinned,
+                                              final int kingCoordinate,
+                                              final Color opponent,
+                                              final int kinds) {
+        final Color color = board.getMoveMaker();
+        final int movedPiece = BitBoards.pieceIndex(PieceType.PAWN, color);
+        final int forwardOffset = color.getDirection() * BoardValues.NUM_TILES_PER_ROW;
+        final long startingRow = color.isWhite() ? BitBoards.SEVENTH_ROW : BitBoards.SECOND_ROW;
+        final long enemyOccupancy = board.getOccupancy(opponent);
+        final int enPassantCoordinate = board.getEnPassantCoordinate();
+
+        long pawns = board.getPieceBitBoard(PieceType.PAWN, color);
+        while (pawns != 0) {
+            final int currentCoordinate = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            final long allowed = BitBoards.isSet(pinned, currentCoordinate) ?
+                    targets & BitBoards.LINE[kingCoordinate][currentCoordinate] : targets;
+
+            final int destinationCoordinate = currentCoordinate + forwardOffset;
+            if (board.getPieceIndex(destinationCoordinate) == SearchBoard.NO_PIECE) {
+                //a push to the last row promotes, which counts with the captures
+                final int pushKind = isLastRow(destinationCoordinate) ? CAPTURES : QUIETS;
+                if ((kinds & pushKind) != 0 && BitBoards.isSet(allowed, destinationCoordinate)) {
+                    count = addPawnMove(moves, count, currentCoordinate, destinationCoordinate, movedPiece,
+                            SearchBoard.NO_PIECE, color);
+                }
+                final int jumpCoordinate = destinationCoordinate + forwardOffset;
+                if ((kinds & QUIETS) != 0 &&
+                    BitBoards.isSet(startingRow, currentCoordinate) &&
+                    board.getPieceIndex(jumpCoordinate) == SearchBoard.NO_PIECE &&
+                    BitBoards.isSet(allowed, jumpCoordinate)) {
+                    moves[count++] = EncodedMove.create(currentCoordinate, jumpCoordinate, movedPiece,
+                            SearchBoard.NO_PIECE, SearchBoard.NO_PIECE, EncodedMove.PAWN_JUMP);
+                }
+            }
+
+            if ((kinds & CAPTURES) == 0) {
+                continue;
+            }
+            final long attacks = BitBoards.PAWN_ATTACKS[color.ordinal()][currentCoordinate];
+            long captures = attacks & enemyOccupancy & allowed;
+            while (captures != 0) {
+                final int attackCoordinate = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                count = addPawnMove(moves, count, currentCoordinate, attackCoordinate, movedPiece,
+                        board.getPieceIndex(attackCoordinate), color);
+            }
+            if (enPassantCoordinate != SearchBoard.NO_EN_PASSANT && BitBoards.isSet(attacks, enPassantCoordinate) &&
+                isLegalEnPassant(board, currentCoordinate, enPassantCoordinate, kingCoordinate, opponent)) {
+                moves[count++] = EncodedMove.create(currentCoordinate, enPassantCoordinate, movedPiece,
+                        BitBoards.pieceIndex(PieceType.PAWN, opponent), SearchBoard.NO_PIECE, EncodedMove.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    //en passant takes two pawns off one row at once, which pin masks miss, so it is checked on the resulting occupancy
+    private static boolean isLegalEnPassant(final SearchBoard board,
+                                            final int currentCoordinate,
+                                            final int enPassantCoordinate,
+                                            final int kingCoordinate,
+                                            final Color opponent) {
+        final int capturedCoordinate = enPassantCoordinate - board.getMoveMaker().getDirection() * BoardValues.NUM_TILES_PER_ROW;
+        final long occupancy = (board.getOccupancy() & ~BitBoards.squareMask(currentCoordinate) &
+                ~BitBoards.squareMask(capturedCoordinate)) | BitBoards.squareMask(enPassantCoordinate);
+        return (board.attackersTo(kingCoordinate, opponent, occupancy) & ~BitBoards.squareMask(capturedCoordinate)) == 0;
+    }
+
+    static long attacks(final PieceType pieceType,
+                        final int coordinate,
+                        final long occupancy) {
+        switch (pieceType) {
+            case KNIGHT:
+                return BitBoards.KNIGHT_ATTACKS[coordinate];
+            case BISHOP:
+                return BitBoards.bishopAttacks(coordinate, occupancy);
+            case ROOK:
+                return BitBoards.rookAttacks(coordinate, occupancy);
+            case QUEEN:
+                return BitBoards.queenAttacks(coordinate, occupancy);
+            case KING:
+                return BitBoards.KING_ATTACKS[coordinate];
+            default:
+                throw new RuntimeException("Pawn attacks depend on the color!");
+        }
+    }
+
+    private static int generatePieceMoves(final SearchBoard board,
+                                          final int[] moves,
+                                          int count,
+                                          final PieceType pieceType,
+                                          final long targets,
+                                          final long occupancy) {
+        final int movedPiece = BitBoards.pieceIndex(pieceType, board.getMoveMaker());
+        long pieces = board.getPieceBitBoard(pieceType, board.getMoveMaker());
+        while (pieces != 0) {
+            final int currentCoordinate = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long destinations = attacks(pieceType, currentCoordinate, occupancy) & targets;
+            while (destinations != 0) {
+                final int destinationCoordinate = Long.numberOfTrailingZeros(destinations);
+                destinations &= destinations - 1;
+                moves[count++] = EncodedMove.create(currentCoordinate, destinationCoordinate, movedPiece,
+                        board.getPieceIndex(destinationCoordinate), SearchBoard.NO_PIECE, EncodedMove.QUIET);
+            }
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(final SearchBoard board,
+                                         final int[] moves,
+                                         int count) {
+        final Color color = board.getMoveMaker();
+        final int movedPiece = BitBoards.pieceIndex(PieceType.PAWN, color);
+        final int forwardOffset = color.getDirection() * BoardValues.NUM_TILES_PER_ROW;
+        final long startingRow = color.isWhite() ? BitBoards.SEVENTH_ROW : BitBoards.SECOND_ROW;
+        final long enemyOccupancy = board.getOccupancy(color.isWhite() ? Color.BLACK : Color.WHITE);
+        final int enPassantCoordinate = board.getEnPassantCoordinate();
+
+        long pawns = board.getPieceBitBoard(PieceType.PAWN, color);
+        while (pawns != 0) {
+            final int currentCoordinate = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            //pawns never stand on the last row, so one step forward is always on the board
+            final int destinationCoordinate = currentCoordinate + forwardOffset;
+            if (board.getPieceIndex(destinationCoordinate) == SearchBoard.NO_PIECE) {
+                count = addPawnMove(moves, count, currentCoordinate, destinationCoordinate, movedPiece, SearchBoard.NO_PIECE, color);
+                final int jumpCoordinate = destinationCoordinate + forwardOffset;
+                if (BitBoards.isSet(startingRow, currentCoordinate) &&
+                    board.getPieceIndex(jumpCoordinate) == SearchBoard.NO_PIECE) {
+                    moves[count++] = EncodedMove.create(currentCoordinate, jumpCoordinate, movedPiece,
+                            SearchBoard.NO_PIECE, SearchBoard.NO_PIECE, EncodedMove.PAWN_JUMP);
+                }
+            }
+
+            final long attacks = BitBoards.PAWN_ATTACKS[color.ordinal()][currentCoordinate];
+            long captures = attacks & enemyOccupancy;
+            while (captures != 0) {
+                final int attackCoordinate = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                count = addPawnMove(moves, count, currentCoordinate, attackCoordinate, movedPiece,
+                        board.getPieceIndex(attackCoordinate), color);
+            }
+            if (enPassantCoordinate != SearchBoard.NO_EN_PASSANT && BitBoards.isSet(attacks, enPassantCoordinate)) {
+                moves[count++] = EncodedMove.create(currentCoordinate, enPassantCoordinate, movedPiece,
+                        BitBoards.pieceIndex(PieceType.PAWN, color.isWhite() ? Color.BLACK : Color.WHITE),
+                        SearchBoard.NO_PIECE, EncodedMove.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    //a pawn reaching the last row turns into one move per promotion piece
+    private static int addPawnMove(final int[] moves,
+                                   int count,
+                                   final int currentCoordinate,
+                                   final int destinationCoordinate,
+                                   final int movedPiece,
+                                   final int capturedPiece,
+                                   final Color color) {
+        if (!isLastRow(destinationCoordinate)) {
+            moves[count++] = EncodedMove.create(currentCoordinate, destinationCoordinate, movedPiece,
+                    capturedPiece, SearchBoard.NO_PIECE, EncodedMove.QUIET);
+            return count;
+        }
+        for (final PieceType promotionType : PROMOTION_TYPES) {
+            moves[count++] = EncodedMove.create(currentCoordinate, destinationCoordinate, movedPiece,
+                    capturedPiece, BitBoards.pieceIndex(promotionType, color), EncodedMove.QUIET);
+        }
+        return count;
+    }
+
+    //last row of either color, where pawns promote
+    private static boolean isLastRow(final int coordinate) {
+        return coordinate < BoardValues.NUM_TILES_PER_ROW || coordinate >= BoardValues.NUM_TILES - BoardValues.NUM_TILES_PER_ROW;
+    }
+
+    //the king may not castle out of, through or into check, the rook may be attacked
+    private static int generateCastlingMoves(final SearchBoard board,
+                                             final int[] moves,
+                                             int count) {
+        final Color color = board.getMoveMaker();
+        final int kingCoordinate = color.isWhite() ? 60 : 4;
+        final int king = BitBoards.pieceIndex(PieceType.KING, color);
+        if (canCastle(board, true)) {
+            moves[count++] = EncodedMove.create(kingCoordinate, kingCoordinate + 2, king,
+                    SearchBoard.NO_PIECE, SearchBoard.NO_PIECE, EncodedMove.CASTLING);
+        }
+        if (canCastle(board, false)) {
+            moves[count++] = EncodedMove.create(kingCoordinate, kingCoordinate - 2, king,
+                    SearchBoard.NO_PIECE, SearchBoard.NO_PIECE, EncodedMove.CASTLING);
+        }
+        return count;
+    }
+
+    private static boolean canCastle(final SearchBoard board, final boolean kingSide) {
+        final Color color = board.getMoveMaker();
+        final int right = kingSide ?
+                (color.isWhite() ? CastlingRights.WHITE_KING_SIDE : CastlingRights.BLACK_KING_SIDE) :
+                (color.isWhite() ? CastlingRights.WHITE_QUEEN_SIDE : CastlingRights.BLACK_QUEEN_SIDE);
+        if ((board.getCastlingRights() & right) == 0) {
+            return false;
+        }
+        final int kingCoordinate = color.isWhite() ? 60 : 4;
+        final Color opponent = color.isWhite() ? Color.BLACK : Color.WHITE;
+        if (board.getPieceIndex(kingCoordinate) != BitBoards.pieceIndex(PieceType.KING, color) ||
+            !BitBoards.isSet(board.getPieceBitBoard(PieceType.ROOK, color), kingCoordinate + (kingSide ? 3 : -4))) {
+            return false;
+        }
+        final int step = kingSide ? 1 : -1;
+        final long between = kingSide ?
+                BitBoards.squareMask(kingCoordinate + 1) | BitBoards.squareMask(kingCoordinate + 2) :
+                BitBoards.squareMask(kingCoordinate - 1) | BitBoards.squareMask(kingCoordinate - 2) |
+                BitBoards.squareMask(kingCoordinate - 3);
+        return (board.getOccupancy() & between) == 0 &&
+               !board.isSquareAttacked(kingCoordinate, opponent) &&
+               !board.isSquareAttacked(kingCoordinate + step, opponent) &&
+               !board.isSquareAttacked(kingCoordinate + 2 * step, opponent);
+    }
+}
@@ -0,0 +1,401 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Color;
+import com.chess.engine.evaluation.PieceSquareTables;
+import com.chess.engine.pieces.*;
+
+import java.util.Arrays;
+
+//Mutable board for deep searches: moves are made and unmade in place on the bitboards,
+//with the information needed to take them back kept on a preallocated undo stack.
+//The immutable Board stays the API of the GUI, both can be converted into each other.
+public final class SearchBoard {
+
+    public static final int NO_PIECE = -1;
+    public static final int NO_EN_PASSANT = -1;
+    //the undo stack holds a whole game plus the search on top of it
+    public static final int MAX_UNDO_DEPTH = 1024;
+
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    private static final int KING_SIDE_ROOK_OFFSET = 3;
+    private static final int QUEEN_SIDE_ROOK_OFFSET = -4;
+    private static final int PAWN_INDEX = Piece.PieceType.PAWN.ordinal();
+
+    private final long[] pieceBitBoards = new long[BitBoards.NUM_PIECE_BITBOARDS];
+    //indexed by color ordinal
+    private final long[] occupancies = new long[2];
+    private long allOccupancy;
+    //piece index of every tile, NO_PIECE when empty
+    private final int[] mailbox = new int[BoardValues.NUM_TILES];
+
+    private Color moveMaker;
+    //tile a capturing pawn would move to, NO_EN_PASSANT when the last move was not a pawn jump
+    private int enPassantCoordinate;
+    private int castlingRights;
+    private long zobristKey;
+    //zobrist keys of the pawns alone, the key of the pawn structure evaluation cache
+    private long pawnKey;
+
+    //evaluation sums, white minus black, kept up to date by addPiece and removePiece
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+
+    //undo stack, one entry per made move
+    private int ply;
+    //entries below are positions of the game before this board, they only count for repetitions
+    private int historyPly;
+    private final int[] undoMoves = new int[MAX_UNDO_DEPTH];
+    private final int[] undoEnPassantCoordinates = new int[MAX_UNDO_DEPTH];
+    private final int[] undoCastlingRights = new int[MAX_UNDO_DEPTH];
+    private final long[] undoZobristKeys = new long[MAX_UNDO_DEPTH];
+
+    public SearchBoard(final Board board) {
+        Arrays.fill(this.mailbox, NO_PIECE);
+        for (final Piece piece : board.getWhitePieces()) {
+            addPiece(BitBoards.pieceIndex(piece.getPieceType(), piece.getPieceAlliance()), piece.getPiecePosition());
+        }
+        for (final Piece piece : board.getBlackPieces()) {
+            addPiece(BitBoards.pieceIndex(piece.getPieceType(), piece.getPieceAlliance()), piece.getPiecePosition());
+        }
+        this.moveMaker = board.currentPlayer().getColor();
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        //the pawn jumped over the tile right behind it
+        this.enPassantCoordinate = enPassantPawn == null ? NO_EN_PASSANT :
+                enPassantPawn.getPiecePosition() - enPassantPawn.getPieceAlliance().getDirection() * BoardValues.NUM_TILES_PER_ROW;
+        this.castlingRights = board.getCastlingRights();
+        this.zobristKey = board.getZobristKey();
+    }
+
+    //builds an immutable board of the current position, e.g. to hand a search result to the GUI
+    public Board toBoard() {
+        final Board.Builder builder = new Board.Builder();
+        Pawn enPassantPawn = null;
+        final int enPassantPawnCoordinate = this.enPassantCoordinate == NO_EN_PASSANT ? -1 :
+                this.enPassantCoordinate + opponentOf(this.moveMaker).getDirection() * BoardValues.NUM_TILES_PER_ROW;
+        for (int i = 0; i < BoardValues.NUM_TILES; i++) {
+            if (this.mailbox[i] != NO_PIECE) {
+                final Piece piece = createPiece(this.mailbox[i], i);
+                builder.setPiece(piece);
+                if (i == enPassantPawnCoordinate) {
+                    enPassantPawn = (Pawn) piece;
+                }
+            }
+        }
+        builder.setEnPassantPawn(enPassantPawn);
+        builder.setMoveMaker(this.moveMaker);
+        builder.setCastlingRights(this.castlingRights);
+        return builder.build();
+    }
+
+    public void makeMove(final Move move) {
+        makeMove(move.encode());
+    }
+
+    //plays an encoded move, as produced by MoveGenerator or Move.encode()
+    public void makeMove(final int move) {
+        if (this.ply == MAX_UNDO_DEPTH) {
+            throw new RuntimeException("Undo stack is full!");
+        }
+        final int currentCoordinate = EncodedMove.getCurrentCoordinate(move);
+        final int destinationCoordinate = EncodedMove.getDestinationCoordinate(move);
+        final int movedPiece = EncodedMove.getMovedPiece(move);
+        final int capturedPiece = EncodedMove.getCapturedPiece(move);
+        final int promotionPiece = EncodedMove.getPromotionPiece(move);
+
+        this.undoMoves[this.ply] = move;
+        this.undoEnPassantCoordinates[this.ply] = this.enPassantCoordinate;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoZobristKeys[this.ply] = this.zobristKey;
+        this.ply++;
+
+        if (capturedPiece != NO_PIECE) {
+            removePiece(capturedPiece, capturedCoordinate(move));
+        }
+        removePiece(movedPiece, currentCoordinate);
+        addPiece(promotionPiece != NO_PIECE ? promotionPiece : movedPiece, destinationCoordinate);
+        if (EncodedMove.isCastling(move)) {
+            moveCastlingRook(currentCoordinate, destinationCoordinate, false);
+        }
+
+        this.zobristKey ^= Zobrist.enPassantKey(this.enPassantCoordinate);
+        this.enPassantCoordinate = NO_EN_PASSANT;
+        if (EncodedMove.isPawnJump(move)) {
+            this.enPassantCoordinate = (currentCoordinate + destinationCoordinate) / 2;
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantCoordinate);
+        }
+
+        final int updatedCastlingRights = CastlingRights.update(this.castlingRights, currentCoordinate, destinationCoordinate);
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.castlingKey(updatedCastlingRights);
+        this.castlingRights = updatedCastlingRights;
+
+        this.zobristKey ^= Zobrist.sideToMoveKey(Color.WHITE) ^ Zobrist.sideToMoveKey(Color.BLACK);
+        this.moveMaker = opponentOf(this.moveMaker);
+    }
+
+    public void unmakeMove() {
+        if (this.ply == this.historyPly) {
+            throw new RuntimeException("No move to unmake!");
+        }
+        this.ply--;
+        final int move = this.undoMoves[this.ply];
+        final int currentCoordinate = EncodedMove.getCurrentCoordinate(move);
+        final int destinationCoordinate = EncodedMove.getDestinationCoordinate(move);
+        final int movedPiece = EncodedMove.getMovedPiece(move);
+        final int capturedPiece = EncodedMove.getCapturedPiece(move);
+        final int promotionPiece = EncodedMove.getPromotionPiece(move);
+
+        this.moveMaker = opponentOf(this.moveMaker);
+        if (EncodedMove.isCastling(move)) {
+            moveCastlingRook(currentCoordinate, destinationCoordinate, true);
+        }
+        removePiece(promotionPiece != NO_PIECE ? promotionPiece : movedPiece, destinationCoordinate);
+        addPiece(movedPiece, currentCoordinate);
+        if (capturedPiece != NO_PIECE) {
+            addPiece(capturedPiece, capturedCoordinate(move));
+        }
+        this.enPassantCoordinate = this.undoEnPassantCoordinates[this.ply];
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        //restoring the key is cheaper than toggling everything back
+        this.zobristKey = this.undoZobristKeys[this.ply];
+    }
+
+    //Passes the turn to the opponent without moving, for null move pruning. The undo stack
+    //records it as EncodedMove.NO_MOVE, take it back with unmakeNullMove.
+    public void makeNullMove() {
+        if (this.ply == MAX_UNDO_DEPTH) {
+            throw new RuntimeException("Undo stack is full!");
+        }
+        this.undoMoves[this.ply] = EncodedMove.NO_MOVE;
+        this.undoEnPassantCoordinates[this.ply] = this.enPassantCoordinate;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoZobristKeys[this.ply] = this.zobristKey;
+        this.ply++;
+
+        this.zobristKey ^= Zobrist.enPassantKey(this.enPassantCoordinate);
+        this.enPassantCoordinate = NO_EN_PASSANT;
+        this.zobristKey ^= Zobrist.sideToMoveKey(Color.WHITE) ^ Zobrist.sideToMoveKey(Color.BLACK);
+        this.moveMaker = opponentOf(this.moveMaker);
+    }
+
+    public void unmakeNullMove() {
+        if (this.ply == this.historyPly || this.undoMoves[this.ply - 1] != EncodedMove.NO_MOVE) {
+            throw new RuntimeException("No null move to unmake!");
+        }
+        this.ply--;
+        this.moveMaker = opponentOf(this.moveMaker);
+        this.enPassantCoordinate = this.undoEnPassantCoordinates[this.ply];
+        this.zobristKey = this.undoZobristKeys[this.ply];
+    }
+
+    //Records a position the game went through before this one, oldest first and before any move
+    //is made. Only positions since the last capture or pawn move are worth adding: the search
+    //then sees repetitions of the game as well as its own.
+    public void addGameHistory(final long zobristKey) {
+        if (this.ply != this.historyPly || this.ply == MAX_UNDO_DEPTH) {
+            throw new RuntimeException("No room for game history!");
+        }
+        this.undoMoves[this.ply] = EncodedMove.NO_MOVE;
+        this.undoZobristKeys[this.ply] = zobristKey;
+        this.ply++;
+        this.historyPly++;
+    }
+
+    //whether the position occurred before with the same side to move. Captures and pawn moves
+    //can not be taken back, so the scan stops at the last one of them, and at a null move.
+    //Game history was cut there already.
+    public boolean isRepetition() {
+        for (int i = this.ply - 1; i >= 0; i--) {
+            final int move = this.undoMoves[i];
+            if (i >= this.historyPly && (move == EncodedMove.NO_MOVE || EncodedMove.isCapture(move) ||
+                EncodedMove.getMovedPieceType(move) == Piece.PieceType.PAWN)) {
+                return false;
+            }
+            if (((this.ply - i) & 1) == 0 && this.undoZobristKeys[i] == this.zobristKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //last move on the undo stack, EncodedMove.NO_MOVE if there is none or it was a null move
+    public int getLastMove() {
+        return this.ply == this.historyPly ? EncodedMove.NO_MOVE : this.undoMoves[this.ply - 1];
+    }
+
+    public boolean isSquareAttacked(final int coordinate, final Color attacker) {
+        return BitBoards.isSquareAttacked(coordinate, attacker, this.pieceBitBoards, this.allOccupancy);
+    }
+
+    //same lookup against a hypothetical occupancy, e.g. with the king or an en passant pair taken off
+    public boolean isSquareAttacked(final int coordinate, final Color attacker, final long occupancy) {
+        return BitBoards.isSquareAttacked(coordinate, attacker, this.pieceBitBoards, occupancy);
+    }
+
+    public long attackersTo(final int coordinate, final Color attacker) {
+        return BitBoards.attackersTo(coordinate, attacker, this.pieceBitBoards, this.allOccupancy);
+    }
+
+    public long attackersTo(final int coordinate, final Color attacker, final long occupancy) {
+        return BitBoards.attackersTo(coordinate, attacker, this.pieceBitBoards, occupancy);
+    }
+
+    public int getKingCoordinate(final Color color) {
+        return Long.numberOfTrailingZeros(this.pieceBitBoards[BitBoards.pieceIndex(Piece.PieceType.KING, color)]);
+    }
+
+    //whether the side to move is in check
+    public boolean isInCheck() {
+        return isSquareAttacked(getKingCoordinate(this.moveMaker), opponentOf(this.moveMaker));
+    }
+
+    //after makeMove: whether the side that just moved left its own king in check, i.e. the move was illegal
+    public boolean isOpponentKingAttacked() {
+        final Color opponent = opponentOf(this.moveMaker);
+        return isSquareAttacked(getKingCoordinate(opponent), this.moveMaker);
+    }
+
+    public long getPieceBitBoard(final Piece.PieceType pieceType, final Color color) {
+        return this.pieceBitBoards[BitBoards.pieceIndex(pieceType, color)];
+    }
+
+    public long getOccupancy(final Color color) {
+        return this.occupancies[color.ordinal()];
+    }
+
+    public long getOccupancy() {
+        return this.allOccupancy;
+    }
+
+    //piece index as defined by BitBoards.pieceIndex, NO_PIECE for an empty tile
+    public int getPieceIndex(final int coordinate) {
+        return this.mailbox[coordinate];
+    }
+
+    public Color getMoveMaker() {
+        return this.moveMaker;
+    }
+
+    public int getEnPassantCoordinate() {
+        return this.enPassantCoordinate;
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    //material and piece-square sum of white minus black, see PieceSquareTables
+    public int getMiddlegameScore() {
+        return this.middlegameScore;
+    }
+
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+
+    public int getPhase() {
+        return this.phase;
+    }
+
+    //number of moves on the undo stack, null moves and game history included
+    public int getPly() {
+        return this.ply;
+    }
+
+    @Override
+    public String toString() {
+        return toBoard().toString();
+    }
+
+    //the en passant victim stands behind the destination tile
+    private static int capturedCoordinate(final int move) {
+        final int destinationCoordinate = EncodedMove.getDestinationCoordinate(move);
+        if (!EncodedMove.isEnPassant(move)) {
+            return destinationCoordinate;
+        }
+        return EncodedMove.getMovedPiece(move) < PIECE_TYPES.length ?
+                destinationCoordinate + BoardValues.NUM_TILES_PER_ROW :
+                destinationCoordinate - BoardValues.NUM_TILES_PER_ROW;
+    }
+
+    private void moveCastlingRook(final int kingCoordinate,
+                                  final int kingDestinationCoordinate,
+                                  final boolean undo) {
+        final boolean kingSide = kingDestinationCoordinate > kingCoordinate;
+        final int rookCoordinate = kingCoordinate + (kingSide ? KING_SIDE_ROOK_OFFSET : QUEEN_SIDE_ROOK_OFFSET);
+        final int rookDestinationCoordinate = kingCoordinate + (kingSide ? 1 : -1);
+        final int rook = BitBoards.pieceIndex(Piece.PieceType.ROOK, this.moveMaker);
+        if (undo) {
+            removePiece(rook, rookDestinationCoordinate);
+            addPiece(rook, rookCoordinate);
+        } else {
+            removePiece(rook, rookCoordinate);
+            addPiece(rook, rookDestinationCoordinate);
+        }
+    }
+
+    private void addPiece(final int pieceIndex, final int coordinate) {
+        final long square = 1L << coordinate;
+        this.pieceBitBoards[pieceIndex] |= square;
+        this.occupancies[pieceIndex / PIECE_TYPES.length] |= square;
+        this.allOccupancy |= square;
+        this.mailbox[coordinate] = pieceIndex;
+        this.zobristKey ^= Zobrist.pieceKey(pieceIndex, coordinate);
+        if (pieceIndex % PIECE_TYPES.length == PAWN_INDEX) {
+            this.pawnKey ^= Zobrist.pieceKey(pieceIndex, coordinate);
+        }
+        this.middlegameScore += PieceSquareTables.middlegameScore(pieceIndex, coordinate);
+        this.endgameScore += PieceSquareTables.endgameScore(pieceIndex, coordinate);
+        this.phase += PieceSquareTables.phase(pieceIndex);
+    }
+
+    private void removePiece(final int pieceIndex, final int coordinate) {
+        final long square = ~(1L << coordinate);
+        this.pieceBitBoards[pieceIndex] &= square;
+        this.occupancies[pieceIndex / PIECE_TYPES.length] &= square;
+        this.allOccupancy &= square;
+        this.mailbox[coordinate] = NO_PIECE;
+        this.zobristKey ^= Zobrist.pieceKey(pieceIndex, coordinate);
+        if (pieceIndex % PIECE_TYPES.length == PAWN_INDEX) {
+            this.pawnKey ^= Zobrist.pieceKey(pieceIndex, coordinate);
+        }
+        this.middlegameScore -= PieceSquareTables.middlegameScore(pieceIndex, coordinate);
+        this.endgameScore -= PieceSquareTables.endgameScore(pieceIndex, coordinate);
+        this.phase -= PieceSquareTables.phase(pieceIndex);
+    }
+
+    private static Color opponentOf(final Color color) {
+        return color.isWhite() ? Color.BLACK : Color.WHITE;
+    }
+
+    private Piece createPiece(final int pieceIndex, final int coordinate) {
+        final Piece.PieceType pieceType = PIECE_TYPES[pieceIndex % PIECE_TYPES.length];
+        final Color color = pieceIndex < PIECE_TYPES.length ? Color.WHITE : Color.BLACK;
+        return Piece.createPiece(pieceType, color, coordinate, isFirstMove(pieceType, color, coordinate, this.castlingRights));
+    }
+
+    //Without the move history the first move flag is derived from what the position still tells:
+    //pawns on their starting row, kings and rooks that keep a castling right. FEN loading uses it too.
+    static boolean isFirstMove(final Piece.PieceType pieceType,
+                               final Color color,
+                               final int coordinate,
+                               final int castlingRights) {
+        switch (pieceType) {
+            case PAWN:
+                return BitBoards.isSet(color.isWhite() ? BitBoards.SEVENTH_ROW : BitBoards.SECOND_ROW, coordinate);
+            case KING:
+            case ROOK:
+                return CastlingRights.update(castlingRights, coordinate, coordinate) != castlingRights;
+            default:
+                return true;
+        }
+    }
+}
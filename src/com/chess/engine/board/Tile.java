@@ -1,32 +1,28 @@
 package com.chess.engine.board;
 
-import com.google.common.collect.ImmutableMap; // guava import
 import com.chess.engine.pieces.Piece;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public abstract class Tile {
 
     protected final int tileCoordinate;
 
-    //Adding integers to emptytiles
-    private static final Map<Integer, EmptyTile> EMPTY_TILES = createAllPossibleEmptyTiles();
+    //Empty tiles indexed by coordinate, shared by every board
+    private static final EmptyTile[] EMPTY_TILES = createAllPossibleEmptyTiles();
 
     //Generate Empty tiles
-    private static Map<Integer, EmptyTile> createAllPossibleEmptyTiles() {
-        final Map<Integer,EmptyTile> emptyTileMap = new HashMap<>();
+    private static EmptyTile[] createAllPossibleEmptyTiles() {
+        final EmptyTile[] emptyTiles = new EmptyTile[BoardValues.NUM_TILES];
 
-        for(int i = 0; i < 64; i++){
-            emptyTileMap.put(i, new EmptyTile(i));
+        for(int i = 0; i < BoardValues.NUM_TILES; i++){
+            emptyTiles[i] = new EmptyTile(i);
         }
 
-        return ImmutableMap.copyOf(emptyTileMap); //ImmutableMap is blocking to change "emptyTileMap"
+        return emptyTiles;
     }
 
 
     public static Tile createTile(final int tileCoordinate, final Piece piece){
-        return piece != null ? new OccupiedTile(tileCoordinate, piece) : EMPTY_TILES.get(tileCoordinate);
+        return piece != null ? new OccupiedTile(tileCoordinate, piece) : EMPTY_TILES[tileCoordinate];
     }
 
     //constructor
@@ -0,0 +1,89 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Color;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Random;
+
+//64 bit position keys, XOR of one random number per (piece, tile), castling rights,
+//en passant column and side to move, so a move only has to toggle what it changed
+public class Zobrist {
+
+    //fixed seed so keys are identical between runs and processes
+    private static final long SEED = 0x4A43686573734B65L;
+
+    private static final long[][] PIECE_KEYS = new long[BitBoards.NUM_PIECE_BITBOARDS][BoardValues.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[CastlingRights.ALL + 1];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardValues.NUM_TILES_PER_ROW];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int i = 0; i < pieceKeys.length; i++) {
+                pieceKeys[i] = random.nextLong();
+            }
+        }
+        //each right gets its own number and combinations are XORed together
+        final long[] singleRightKeys = new long[4];
+        for (int i = 0; i < singleRightKeys.length; i++) {
+            singleRightKeys[i] = random.nextLong();
+        }
+        for (int rights = 0; rights < CASTLING_KEYS.length; rights++) {
+            for (int i = 0; i < singleRightKeys.length; i++) {
+                if ((rights & (1 << i)) != 0) {
+                    CASTLING_KEYS[rights] ^= singleRightKeys[i];
+                }
+            }
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static long pieceKey(final int pieceIndex, final int coordinate) {
+        return PIECE_KEYS[pieceIndex][coordinate];
+    }
+
+    public static long pieceKey(final Piece.PieceType pieceType, final Color color, final int coordinate) {
+        return PIECE_KEYS[BitBoards.pieceIndex(pieceType, color)][coordinate];
+    }
+
+    public static long pieceKey(final Piece piece) {
+        return pieceKey(piece.getPieceType(), piece.getPieceAlliance(), piece.getPiecePosition());
+    }
+
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    //any tile on the en passant column selects the key, -1 means no en passant
+    public static long enPassantKey(final int coordinate) {
+        return coordinate < 0 ? 0L : EN_PASSANT_KEYS[coordinate % BoardValues.NUM_TILES_PER_ROW];
+    }
+
+    public static long sideToMoveKey(final Color moveMaker) {
+        return moveMaker.isBlack() ? BLACK_TO_MOVE_KEY : 0L;
+    }
+
+    //full computation, only used when a position is set up from scratch
+    public static long calculateKey(final long[] pieceBitBoards,
+                                    final Color moveMaker,
+                                    final int castlingRights,
+                                    final int enPassantCoordinate) {
+        long key = sideToMoveKey(moveMaker) ^ castlingKey(castlingRights) ^ enPassantKey(enPassantCoordinate);
+        for (int pieceIndex = 0; pieceIndex < pieceBitBoards.length; pieceIndex++) {
+            long pieces = pieceBitBoards[pieceIndex];
+            while (pieces != 0) {
+                key ^= PIECE_KEYS[pieceIndex][Long.numberOfTrailingZeros(pieces)];
+                pieces &= pieces - 1;
+            }
+        }
+        return key;
+    }
+}
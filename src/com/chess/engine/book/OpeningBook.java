@@ -0,0 +1,131 @@
+package com.chess.engine.book;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardValues;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+//Polyglot opening book (.bin). The file is memory-mapped read-only instead of loaded, so even a
+//book of hundreds of megabytes costs no heap and every engine process on the machine shares the
+//pages the OS caches. Entries are 16 bytes, big-endian and sorted by PolyglotKeys key:
+//  key (8)   move (2)   weight (2)   learn (4, unused)
+//A move packs the destination tile in bits 0-5 and the current tile in bits 6-11, both counted
+//from a1, and the promotion piece in bits 12-14. Castling is written as the king taking its rook.
+//Lookups only use absolute reads, so one book may be shared by any number of threads.
+public final class OpeningBook {
+
+    private static final int ENTRY_SIZE = 16;
+    private static final int MOVE_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 10;
+    private static final int FLIP_ROWS = 56;
+
+    private final MappedByteBuffer entries;
+    private final int numEntries;
+
+    private OpeningBook(final MappedByteBuffer entries) {
+        this.entries = entries;
+        this.numEntries = entries.capacity() / ENTRY_SIZE;
+    }
+
+    //one mapping holds at most 2 GB, books are far smaller
+    public static OpeningBook open(final Path path) throws IOException {
+        try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if(size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a Polyglot book: " + path);
+            }
+            //the mapping stays valid after the channel is closed
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public int size() {
+        return this.numEntries;
+    }
+
+    //A book move for the position, picked with a chance proportional to its weight, or
+    //Move.NULL_MOVE when the book does not know the position. Entries of weight 0 are never played.
+    public Move pickMove(final Board board, final Random random) {
+        final long key = PolyglotKeys.calculateKey(board);
+        final int first = firstEntry(key);
+        int totalWeight = 0;
+        int last = first;
+        while(last < this.numEntries && keyAt(last) == key) {
+            totalWeight += weightAt(last);
+            last++;
+        }
+        if(totalWeight == 0) {
+            return Move.NULL_MOVE;
+        }
+        int pick = random.nextInt(totalWeight);
+        for(int i = first; i < last; i++) {
+            pick -= weightAt(i);
+            if(pick < 0) {
+                return decode(board, moveAt(i));
+            }
+        }
+        return Move.NULL_MOVE;
+    }
+
+    //index of the first entry with a key not below the given one, the keys compare unsigned
+    private int firstEntry(final long key) {
+        int low = 0;
+        int high = this.numEntries;
+        while(low < high) {
+            final int middle = (low + high) >>> 1;
+            if(Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(final int index) {
+        return this.entries.getLong(index * ENTRY_SIZE);
+    }
+
+    private int moveAt(final int index) {
+        return Short.toUnsignedInt(this.entries.getShort(index * ENTRY_SIZE + MOVE_OFFSET));
+    }
+
+    private int weightAt(final int index) {
+        return Short.toUnsignedInt(this.entries.getShort(index * ENTRY_SIZE + WEIGHT_OFFSET));
+    }
+
+    //the legal move the entry stands for, Move.NULL_MOVE if there is none, e.g. on a key collision
+    private static Move decode(final Board board, final int bookMove) {
+        final int currentCoordinate = ((bookMove >>> 6) & 0x3F) ^ FLIP_ROWS;
+        int destinationCoordinate = (bookMove & 0x3F) ^ FLIP_ROWS;
+        //promotion pieces are numbered knight to queen, as the piece types are
+        final int promotion = (bookMove >>> 12) & 0x7;
+        final Piece movedPiece = board.getPiece(currentCoordinate);
+        if(movedPiece != null && movedPiece.getPieceType() == PieceType.KING &&
+           Math.abs(destinationCoordinate - currentCoordinate) > 1 &&
+           destinationCoordinate / BoardValues.NUM_TILES_PER_ROW == currentCoordinate / BoardValues.NUM_TILES_PER_ROW) {
+            //king takes own rook, we move the king two tiles towards it
+            destinationCoordinate = currentCoordinate + (destinationCoordinate > currentCoordinate ? 2 : -2);
+        }
+        for(final Move move : board.currentPlayer().getLegalMoves()) {
+            if(move.getCurrentCoordinate() == currentCoordinate &&
+               move.getDestinationCoordinate() == destinationCoordinate &&
+               promotionOf(move) == promotion) {
+                return move;
+            }
+        }
+        return Move.NULL_MOVE;
+    }
+
+    private static int promotionOf(final Move move) {
+        return move instanceof Move.PawnPromotion ? ((Move.PawnPromotion) move).getPromotionType().ordinal() : 0;
+    }
+}
@@ -0,0 +1,277 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.BitBoards;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+//Retrograde analysis of one endgame. The lone king can at best draw, so one bit per position
+//is enough: for the strong side to move whether it wins, for the weak side to move whether it loses.
+//  1. Every position with the weak side to move counts its legal moves, checkmates lose.
+//     In KPK promotions into a won KQK or KRK position win as well.
+//  2. Un-making a strong move from a lost position gives positions where the strong side wins.
+//  3. Un-making a weak move from a won position takes one move off the count of the position
+//     before. Once none is left, every move loses, and so does that position.
+//Steps 2 and 3 alternate until nothing changes, one ply further from the mates every round.
+//The positions of a round are spread over all cores; they only meet in atomic bit and count updates.
+final class BitbaseGenerator {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int WHITE_PAWN = Color.WHITE.ordinal();
+
+    private final Endgame endgame;
+    //the bitbases this one depends on, by endgame ordinal
+    private final long[][] generated;
+    private final int numWords;
+    //wins with the strong side to move, then losses with the weak side to move
+    private final long[] bits;
+    //weak side to move: moves not yet known to lose
+    private final int[] counters;
+    //positions decided in the last round, their predecessors are looked at next
+    private final long[] newWins;
+    private final long[] newLosses;
+
+    private BitbaseGenerator(final Endgame endgame, final long[][] generated) {
+        this.endgame = endgame;
+        this.generated = generated;
+        this.numWords = endgame.getNumPositions() / Long.SIZE;
+        this.bits = new long[2 * this.numWords];
+        this.counters = new int[endgame.getNumPositions()];
+        this.newWins = new long[this.numWords];
+        this.newLosses = new long[this.numWords];
+    }
+
+    //KPK needs KQK and KRK among the generated ones
+    static long[] generate(final Endgame endgame, final long[][] generated) {
+        return new BitbaseGenerator(endgame, generated).run();
+    }
+
+    private long[] run() {
+        IntStream.range(0, this.endgame.getNumPositions()).parallel().forEach(this::countWeakMoves);
+        if(this.endgame == Endgame.KPK) {
+            IntStream.range(0, this.endgame.getNumPositions()).parallel().forEach(this::promote);
+        }
+        while(!isEmpty(this.newLosses) || !isEmpty(this.newWins)) {
+            forEachParallel(this.newLosses, this::unmakeStrongMoves);
+            Arrays.fill(this.newLosses, 0L);
+            forEachParallel(this.newWins, this::unmakeWeakMoves);
+            Arrays.fill(this.newWins, 0L);
+        }
+        return this.bits;
+    }
+
+    private void countWeakMoves(final int index) {
+        if(!isValid(index)) {
+            return;
+        }
+        final long occupancy = occupancy(index);
+        final int weakKing = Endgame.weakKing(index);
+        final long withoutKing = occupancy & ~BitBoards.squareMask(weakKing);
+        long destinations = BitBoards.KING_ATTACKS[weakKing] & ~BitBoards.KING_ATTACKS[Endgame.strongKing(index)];
+        int moves = 0;
+        while(destinations != 0) {
+            final int destination = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            //taking a piece that nothing covers is a move too, into a draw that never counts down
+            if(!isAttacked(index, destination, withoutKing, pieceOn(index, destination))) {
+                moves++;
+            }
+        }
+        this.counters[index] = moves;
+        if(moves == 0 && isAttacked(index, weakKing, occupancy, -1)) {
+            markLoss(index);
+        }
+    }
+
+    //the pawn one step from promoting wins if the new queen or rook does
+    private void promote(final int index) {
+        final int pawn = Endgame.piece(index, 0);
+        if(pawn >>> 3 != 1 || !isLegalStrongToMove(index)) {
+            return;
+        }
+        final int destination = pawn - 8;
+        if(BitBoards.isSet(occupancy(index), destination)) {
+            return;
+        }
+        final int promoted = Endgame.withPiece(index, 0, destination);
+        if(isLoss(Endgame.KQK, promoted) || isLoss(Endgame.KRK, promoted)) {
+            markWin(index);
+        }
+    }
+
+    private void unmakeStrongMoves(final int lossIndex) {
+        final long occupancy = occupancy(lossIndex);
+        long origins = BitBoards.KING_ATTACKS[Endgame.strongKing(lossIndex)] & ~occupancy;
+        while(origins != 0) {
+            markWinIfLegal(Endgame.withStrongKing(lossIndex, Long.numberOfTrailingZeros(origins)));
+            origins &= origins - 1;
+        }
+        for(int i = 0; i < this.endgame.getNumPieces(); i++) {
+            origins = origins(i, Endgame.piece(lossIndex, i), occupancy) & ~occupancy;
+            while(origins != 0) {
+                markWinIfLegal(Endgame.withPiece(lossIndex, i, Long.numberOfTrailingZeros(origins)));
+                origins &= origins - 1;
+            }
+        }
+    }
+
+    private void unmakeWeakMoves(final int winIndex) {
+        final long occupancy = occupancy(winIndex);
+        long origins = BitBoards.KING_ATTACKS[Endgame.weakKing(winIndex)] & ~occupancy &
+                ~BitBoards.KING_ATTACKS[Endgame.strongKing(winIndex)];
+        while(origins != 0) {
+            final int before = Endgame.withWeakKing(winIndex, Long.numberOfTrailingZeros(origins));
+            origins &= origins - 1;
+            if((int) COUNTERS.getAndAdd(this.counters, before, -1) == 1) {
+                markLoss(before);
+            }
+        }
+    }
+
+    //tiles the piece could have come from, sliders and leapers move back the way they move
+    private long origins(final int i, final int coordinate, final long occupancy) {
+        switch(this.endgame.getPiece(i)) {
+            case PAWN:
+                //white pawns move towards row 0, from their starting row 6 two rows at once
+                long origins = coordinate + 8 < 64 ? BitBoards.squareMask(coordinate + 8) : 0L;
+                if(coordinate >>> 3 == 4 && !BitBoards.isSet(occupancy, coordinate + 8)) {
+                    origins |= BitBoards.squareMask(coordinate + 16);
+                }
+                return origins;
+            case KNIGHT:
+                return BitBoards.KNIGHT_ATTACKS[coordinate];
+            case BISHOP:
+                return BitBoards.bishopAttacks(coordinate, occupancy);
+            case ROOK:
+                return BitBoards.rookAttacks(coordinate, occupancy);
+            case QUEEN:
+                return BitBoards.queenAttacks(coordinate, occupancy);
+            default:
+                throw new RuntimeException("No endgame piece!");
+        }
+    }
+
+    //whether a strong piece other than the excluded one attacks the tile
+    private boolean isAttacked(final int index, final int coordinate, final long occupancy, final int excluded) {
+        if(BitBoards.isSet(BitBoards.KING_ATTACKS[Endgame.strongKing(index)], coordinate)) {
+            return true;
+        }
+        for(int i = 0; i < this.endgame.getNumPieces(); i++) {
+            if(i == excluded) {
+                continue;
+            }
+            final int piece = Endgame.piece(index, i);
+            final long attacks;
+            switch(this.endgame.getPiece(i)) {
+                case PAWN:
+                    attacks = BitBoards.PAWN_ATTACKS[WHITE_PAWN][piece];
+                    break;
+                case KNIGHT:
+                    attacks = BitBoards.KNIGHT_ATTACKS[piece];
+                    break;
+                case BISHOP:
+                    attacks = BitBoards.bishopAttacks(piece, occupancy);
+                    break;
+                case ROOK:
+                    attacks = BitBoards.rookAttacks(piece, occupancy);
+                    break;
+                default:
+                    attacks = BitBoards.queenAttacks(piece, occupancy);
+                    break;
+            }
+            if(BitBoards.isSet(attacks, coordinate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //which of the pieces stands on the tile, -1 for none
+    private int pieceOn(final int index, final int coordinate) {
+        for(int i = 0; i < this.endgame.getNumPieces(); i++) {
+            if(Endgame.piece(index, i) == coordinate) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long occupancy(final int index) {
+        long occupancy = BitBoards.squareMask(Endgame.strongKing(index)) | BitBoards.squareMask(Endgame.weakKing(index));
+        for(int i = 0; i < this.endgame.getNumPieces(); i++) {
+            occupancy |= BitBoards.squareMask(Endgame.piece(index, i));
+        }
+        return occupancy;
+    }
+
+    //every piece on its own tile, kings apart and pawns off the first and last row
+    private boolean isValid(final int index) {
+        if(Long.bitCount(occupancy(index)) != 2 + this.endgame.getNumPieces() ||
+           BitBoards.isSet(BitBoards.KING_ATTACKS[Endgame.strongKing(index)], Endgame.weakKing(index))) {
+            return false;
+        }
+        if(this.endgame == Endgame.KPK) {
+            final int row = Endgame.piece(index, 0) >>> 3;
+            return row > 0 && row < 7;
+        }
+        return true;
+    }
+
+    //the weak side, which just moved, can not be left in check
+    private boolean isLegalStrongToMove(final int index) {
+        return isValid(index) && !isAttacked(index, Endgame.weakKing(index), occupancy(index), -1);
+    }
+
+    private void markWinIfLegal(final int index) {
+        if(isLegalStrongToMove(index)) {
+            markWin(index);
+        }
+    }
+
+    private void markWin(final int index) {
+        if(setBit(this.bits, index >>> 6, index)) {
+            setBit(this.newWins, index >>> 6, index);
+        }
+    }
+
+    private void markLoss(final int index) {
+        if(setBit(this.bits, this.numWords + (index >>> 6), index)) {
+            setBit(this.newLosses, index >>> 6, index);
+        }
+    }
+
+    private boolean isLoss(final Endgame endgame, final int index) {
+        final long[] bits = this.generated[endgame.ordinal()];
+        return BitBoards.isSet(bits[endgame.getNumPositions() / Long.SIZE + (index >>> 6)], index & 63);
+    }
+
+    //true if the bit was not set before
+    private static boolean setBit(final long[] words, final int word, final int index) {
+        final long mask = 1L << (index & 63);
+        return ((long) WORDS.getAndBitwiseOr(words, word, mask) & mask) == 0;
+    }
+
+    private static void forEachParallel(final long[] positions, final IntConsumer action) {
+        IntStream.range(0, positions.length).parallel().forEach(word -> {
+            long bits = positions[word];
+            while(bits != 0) {
+                action.accept(word << 6 | Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        });
+    }
+
+    private static boolean isEmpty(final long[] words) {
+        for(final long word : words) {
+            if(word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
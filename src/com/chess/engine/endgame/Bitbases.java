@@ -0,0 +1,163 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.CastlingRights;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+//Win/draw/loss of every KPK, KRK, KQK and KBNK position, one bit each and 4 MB in all, so the
+//search knows these endings at once instead of searching them. Generated in process by
+//BitbaseGenerator, saved to a file and memory-mapped from there by later runs.
+//The file is a magic number followed by the bits of every endgame in declaration order,
+//wins with the strong side to move first, then losses with the weak side to move.
+//Read-only once built, one instance serves every search thread.
+public final class Bitbases {
+
+    //results of probe, from the point of view of the side to move
+    public static final int UNKNOWN = 0;
+    public static final int WIN = 1;
+    public static final int DRAW = 2;
+    public static final int LOSS = 3;
+
+    private static final long MAGIC = 0x4A43424954424153L;
+    private static final Endgame[] ENDGAMES = Endgame.values();
+    //KPK promotes into KQK and KRK, so those come first
+    private static final Endgame[] GENERATION_ORDER = {Endgame.KQK, Endgame.KRK, Endgame.KBNK, Endgame.KPK};
+    //tiles of the black side are flipped onto the white side by their row bits
+    private static final int FLIP_ROWS = 56;
+
+    private final LongBuffer[] bits = new LongBuffer[ENDGAMES.length];
+
+    private Bitbases(final LongBuffer[] bits) {
+        System.arraycopy(bits, 0, this.bits, 0, bits.length);
+    }
+
+    //runs the retrograde analysis of every endgame, each one on all cores
+    public static Bitbases generate() {
+        final long[][] generated = new long[ENDGAMES.length][];
+        for(final Endgame endgame : GENERATION_ORDER) {
+            generated[endgame.ordinal()] = BitbaseGenerator.generate(endgame, generated);
+        }
+        final LongBuffer[] bits = new LongBuffer[ENDGAMES.length];
+        for(final Endgame endgame : ENDGAMES) {
+            bits[endgame.ordinal()] = LongBuffer.wrap(generated[endgame.ordinal()]);
+        }
+        return new Bitbases(bits);
+    }
+
+    public static Bitbases load(final Path path) throws IOException {
+        try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if(channel.size() != fileSize()) {
+                throw new IOException("Not a bitbase file: " + path);
+            }
+            //the mapping stays valid after the channel is closed
+            final MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(file.getLong(0) != MAGIC) {
+                throw new IOException("Not a bitbase file: " + path);
+            }
+            final LongBuffer[] bits = new LongBuffer[ENDGAMES.length];
+            int position = Long.BYTES;
+            for(final Endgame endgame : ENDGAMES) {
+                final int numWords = numWords(endgame);
+                bits[endgame.ordinal()] = file.position(position).slice().asLongBuffer().limit(numWords).slice();
+                position += numWords * Long.BYTES;
+            }
+            return new Bitbases(bits);
+        }
+    }
+
+    //the file if there is one, otherwise the bitbases are generated and saved there
+    public static Bitbases loadOrGenerate(final Path path) throws IOException {
+        if(Files.exists(path)) {
+            return load(path);
+        }
+        final Bitbases bitbases = generate();
+        bitbases.save(path);
+        return bitbases;
+    }
+
+    public void save(final Path path) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) fileSize());
+        buffer.putLong(MAGIC);
+        for(final Endgame endgame : ENDGAMES) {
+            final LongBuffer words = this.bits[endgame.ordinal()].duplicate();
+            words.rewind();
+            buffer.asLongBuffer().put(words);
+            buffer.position(buffer.position() + numWords(endgame) * Long.BYTES);
+        }
+        buffer.flip();
+        try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    //WIN, DRAW or LOSS for the side to move, UNKNOWN if the material has no bitbase
+    public int probe(final SearchBoard board) {
+        if(Long.bitCount(board.getOccupancy()) > Endgame.MAX_PIECES ||
+           board.getCastlingRights() != CastlingRights.NONE) {
+            return UNKNOWN;
+        }
+        final Color strong;
+        if(Long.bitCount(board.getOccupancy(Color.BLACK)) == 1) {
+            strong = Color.WHITE;
+        } else if(Long.bitCount(board.getOccupancy(Color.WHITE)) == 1) {
+            strong = Color.BLACK;
+        } else {
+            return UNKNOWN;
+        }
+        final Color weak = strong.isWhite() ? Color.BLACK : Color.WHITE;
+        for(final Endgame endgame : ENDGAMES) {
+            if(!endgame.matches(board, strong)) {
+                continue;
+            }
+            final int flip = strong.isWhite() ? 0 : FLIP_ROWS;
+            int index = (board.getKingCoordinate(strong) ^ flip) | (board.getKingCoordinate(weak) ^ flip) << 6;
+            for(int i = 0; i < endgame.getNumPieces(); i++) {
+                final int piece = Long.numberOfTrailingZeros(board.getPieceBitBoard(endgame.getPiece(i), strong)) ^ flip;
+                index = Endgame.withPiece(index, i, piece);
+            }
+            if(board.getMoveMaker() == strong) {
+                return isSet(endgame, index >>> 6, index) ? WIN : DRAW;
+            }
+            return isSet(endgame, numWords(endgame) / 2 + (index >>> 6), index) ? LOSS : DRAW;
+        }
+        return UNKNOWN;
+    }
+
+    private boolean isSet(final Endgame endgame, final int word, final int index) {
+        return (this.bits[endgame.ordinal()].get(word) & (1L << (index & 63))) != 0;
+    }
+
+    //wins and losses
+    private static int numWords(final Endgame endgame) {
+        return 2 * endgame.getNumPositions() / Long.SIZE;
+    }
+
+    private static long fileSize() {
+        return Long.BYTES + Arrays.stream(ENDGAMES).mapToLong(endgame -> (long) numWords(endgame) * Long.BYTES).sum();
+    }
+
+    //usage: Bitbases <file>, generates the bitbases and saves them to the file
+    public static void main(final String[] args) throws IOException {
+        final Path path = Paths.get(args.length > 0 ? args[0] : "bitbases.bin");
+        final long start = System.nanoTime();
+        final Bitbases bitbases = generate();
+        System.out.println("generated in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        bitbases.save(path);
+        System.out.println("saved to " + path.toAbsolutePath());
+    }
+}
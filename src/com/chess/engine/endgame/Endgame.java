@@ -0,0 +1,78 @@
+package com.chess.engine.endgame;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+//Material signatures with a bitbase: a strong side with king and the listed pieces against a
+//lone king. Positions are seen with the strong side as white, moving towards row 0, and indexed
+//by the tiles of the strong king, the weak king and the pieces in the listed order, 6 bits each:
+//  index = strongKing | weakKing << 6 | piece0 << 12 | piece1 << 18
+//Every combination has an index, impossible ones (tiles shared, kings touching, ...) are draws.
+enum Endgame {
+
+    KPK(PieceType.PAWN),
+    KRK(PieceType.ROOK),
+    KQK(PieceType.QUEEN),
+    KBNK(PieceType.BISHOP, PieceType.KNIGHT);
+
+    static final int MAX_PIECES = 4;
+
+    private final PieceType[] pieces;
+
+    Endgame(final PieceType... pieces) {
+        this.pieces = pieces;
+    }
+
+    int getNumPieces() {
+        return this.pieces.length;
+    }
+
+    PieceType getPiece(final int i) {
+        return this.pieces[i];
+    }
+
+    //positions with one side to move
+    int getNumPositions() {
+        return 1 << (6 * (2 + this.pieces.length));
+    }
+
+    //whether the strong side has exactly the pieces of this endgame
+    boolean matches(final SearchBoard board, final Color strong) {
+        if(Long.bitCount(board.getOccupancy(strong)) != 1 + this.pieces.length) {
+            return false;
+        }
+        for(final PieceType piece : this.pieces) {
+            if(Long.bitCount(board.getPieceBitBoard(piece, strong)) != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int strongKing(final int index) {
+        return index & 63;
+    }
+
+    static int weakKing(final int index) {
+        return (index >>> 6) & 63;
+    }
+
+    static int piece(final int index, final int i) {
+        return (index >>> (12 + 6 * i)) & 63;
+    }
+
+    //the same position with the piece moved to another tile
+    static int withPiece(final int index, final int i, final int coordinate) {
+        final int shift = 12 + 6 * i;
+        return (index & ~(63 << shift)) | (coordinate << shift);
+    }
+
+    static int withStrongKing(final int index, final int coordinate) {
+        return (index & ~63) | coordinate;
+    }
+
+    static int withWeakKing(final int index, final int coordinate) {
+        return (index & ~(63 << 6)) | (coordinate << 6);
+    }
+}
@@ -0,0 +1,97 @@
+package com.chess.engine.evaluation;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+
+//Pawn structure results by pawn key. Pawns move rarely, so most evaluations of a search
+//find their pawns here and skip PawnStructure altogether.
+//Every search thread owns its cache, it is not safe to share. A slot holds one pawn
+//structure and is overwritten by the next one that maps to it.
+public final class PawnCache {
+
+    public static final int DEFAULT_SIZE = 1 << 14;
+
+    private final long[] keys;
+    private final long[] scores;
+    //per slot the shield of every zone, white zones first
+    private final byte[] shields;
+    private final int mask;
+
+    private long probes;
+    private long hits;
+
+    public PawnCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    //the number of slots is rounded down to a power of two
+    public PawnCache(final int size) {
+        final int numSlots = Integer.highestOneBit(Math.max(1, size));
+        this.keys = new long[numSlots];
+        this.scores = new long[numSlots];
+        this.shields = new byte[numSlots * 2 * PawnStructure.NUM_ZONES];
+        this.mask = numSlots - 1;
+        //empty slots hold key 0, only slot 0 could be asked for it, by a board without pawns
+        this.keys[0] = -1L;
+    }
+
+    //slot holding the pawn structure of the board, evaluated first if it is not cached
+    public int probe(final SearchBoard board) {
+        final long pawnKey = board.getPawnKey();
+        final int slot = (int) pawnKey & this.mask;
+        this.probes++;
+        if(this.keys[slot] == pawnKey) {
+            this.hits++;
+            return slot;
+        }
+        final long whitePawns = board.getPieceBitBoard(PieceType.PAWN, Color.WHITE);
+        final long blackPawns = board.getPieceBitBoard(PieceType.PAWN, Color.BLACK);
+        this.keys[slot] = pawnKey;
+        this.scores[slot] = PawnStructure.evaluate(whitePawns, blackPawns);
+        for(int zone = 0; zone < PawnStructure.NUM_ZONES; zone++) {
+            this.shields[shieldIndex(slot, Color.WHITE, zone)] = (byte) PawnStructure.shield(whitePawns, Color.WHITE, zone);
+            this.shields[shieldIndex(slot, Color.BLACK, zone)] = (byte) PawnStructure.shield(blackPawns, Color.BLACK, zone);
+        }
+        return slot;
+    }
+
+    //white minus black
+    public int getMiddlegameScore(final int slot) {
+        return PawnStructure.middlegameScore(this.scores[slot]);
+    }
+
+    public int getEndgameScore(final int slot) {
+        return PawnStructure.endgameScore(this.scores[slot]);
+    }
+
+    public int getShield(final int slot, final Color color, final int zone) {
+        return this.shields[shieldIndex(slot, color, zone)];
+    }
+
+    public void clear() {
+        Arrays.fill(this.keys, 0L);
+        this.keys[0] = -1L;
+        this.probes = 0;
+        this.hits = 0;
+    }
+
+    public long getProbes() {
+        return this.probes;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    //share of probes answered from the cache, between 0 and 1
+    public double getHitRate() {
+        return this.probes == 0 ? 0 : (double) this.hits / this.probes;
+    }
+
+    private static int shieldIndex(final int slot, final Color color, final int zone) {
+        return (slot * 2 + color.ordinal()) * PawnStructure.NUM_ZONES + zone;
+    }
+}
@@ -0,0 +1,175 @@
+package com.chess.engine.evaluation;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.BoardValues;
+
+//Pawn structure terms that depend on nothing but the pawns: passed, isolated, doubled and
+//backward pawns, plus the pawn shield in front of each of the three places a king lives.
+//Results are packed so a PawnCache entry holds them without any objects.
+public class PawnStructure {
+
+    //king zones the shield is measured for: queen side, centre and king side files
+    public static final int QUEEN_SIDE = 0;
+    public static final int CENTRE = 1;
+    public static final int KING_SIDE = 2;
+    public static final int NUM_ZONES = 3;
+
+    //indexed by relative rank, 1 is the starting row
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int BACKWARD_MIDDLEGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+    //shield pawns right in front of the king and one row further
+    private static final int SHIELD_CLOSE = 10;
+    private static final int SHIELD_FAR = 5;
+
+    private static final long[] COLUMNS = initColumns();
+    private static final long[] ADJACENT_COLUMNS = initAdjacentColumns();
+    private static final int[] ZONE_COLUMNS_FIRST = {0, 3, 5};
+    private static final int[] ZONE_COLUMNS_LAST = {2, 4, 7};
+
+    //by color ordinal and tile: tiles ahead on the same column
+    private static final long[][] FRONT_SPANS = new long[2][BoardValues.NUM_TILES];
+    //tiles ahead on the same and the adjacent columns, no enemy pawn there means passed
+    private static final long[][] PASSED_MASKS = new long[2][BoardValues.NUM_TILES];
+    //tiles on the adjacent columns level with or behind the pawn, where supporting pawns stand
+    private static final long[][] SUPPORT_MASKS = new long[2][BoardValues.NUM_TILES];
+
+    static {
+        for(int i = 0; i < BoardValues.NUM_TILES; i++) {
+            final int column = i & 7;
+            final int row = i >>> 3;
+            for(int j = 0; j < BoardValues.NUM_TILES; j++) {
+                final int otherRow = j >>> 3;
+                final long square = 1L << j;
+                final boolean sameColumn = (j & 7) == column;
+                final boolean adjacentColumn = (ADJACENT_COLUMNS[column] & square) != 0;
+                //white moves towards row 0
+                if(otherRow < row) {
+                    if(sameColumn) {
+                        FRONT_SPANS[Color.WHITE.ordinal()][i] |= square;
+                    }
+                    if(sameColumn || adjacentColumn) {
+                        PASSED_MASKS[Color.WHITE.ordinal()][i] |= square;
+                    }
+                } else if(adjacentColumn) {
+                    SUPPORT_MASKS[Color.WHITE.ordinal()][i] |= square;
+                }
+                if(otherRow > row) {
+                    if(sameColumn) {
+                        FRONT_SPANS[Color.BLACK.ordinal()][i] |= square;
+                    }
+                    if(sameColumn || adjacentColumn) {
+                        PASSED_MASKS[Color.BLACK.ordinal()][i] |= square;
+                    }
+                } else if(adjacentColumn) {
+                    SUPPORT_MASKS[Color.BLACK.ordinal()][i] |= square;
+                }
+            }
+        }
+    }
+
+    private PawnStructure() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    //middlegame score in the high, endgame score in the low half, white minus black
+    public static long evaluate(final long whitePawns, final long blackPawns) {
+        final long white = evaluate(whitePawns, blackPawns, Color.WHITE);
+        final long black = evaluate(blackPawns, whitePawns, Color.BLACK);
+        return pack(middlegameScore(white) - middlegameScore(black), endgameScore(white) - endgameScore(black));
+    }
+
+    public static int middlegameScore(final long packedScore) {
+        return (int) (packedScore >> 32);
+    }
+
+    public static int endgameScore(final long packedScore) {
+        return (int) packedScore;
+    }
+
+    //shield of a king of the given color in a zone, the higher the safer
+    public static int shield(final long pawns, final Color color, final int zone) {
+        final int backRow = color.isWhite() ? 7 : 0;
+        final int forward = color.isWhite() ? -1 : 1;
+        int shield = 0;
+        for(int column = ZONE_COLUMNS_FIRST[zone]; column <= ZONE_COLUMNS_LAST[zone]; column++) {
+            if(BitBoards.isSet(pawns, (backRow + forward) * 8 + column)) {
+                shield += SHIELD_CLOSE;
+            } else if(BitBoards.isSet(pawns, (backRow + 2 * forward) * 8 + column)) {
+                shield += SHIELD_FAR;
+            }
+        }
+        return shield;
+    }
+
+    //zone of a king on the given tile
+    public static int zone(final int kingCoordinate) {
+        final int column = kingCoordinate & 7;
+        return column <= 2 ? QUEEN_SIDE : column <= 4 ? CENTRE : KING_SIDE;
+    }
+
+    private static long evaluate(final long pawns, final long enemyPawns, final Color color) {
+        final int side = color.ordinal();
+        int middlegame = 0;
+        int endgame = 0;
+        long remaining = pawns;
+        while(remaining != 0) {
+            final int coordinate = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            final int column = coordinate & 7;
+
+            if((PASSED_MASKS[side][coordinate] & enemyPawns) == 0) {
+                final int relativeRank = color.isWhite() ? 7 - (coordinate >>> 3) : coordinate >>> 3;
+                middlegame += PASSED_MIDDLEGAME[relativeRank];
+                endgame += PASSED_ENDGAME[relativeRank];
+            }
+            if((ADJACENT_COLUMNS[column] & pawns) == 0) {
+                middlegame += ISOLATED_MIDDLEGAME;
+                endgame += ISOLATED_ENDGAME;
+            } else if((SUPPORT_MASKS[side][coordinate] & pawns) == 0) {
+                //nothing can support it and the tile in front is covered by an enemy pawn
+                final int stopCoordinate = coordinate + color.getDirection() * BoardValues.NUM_TILES_PER_ROW;
+                if((BitBoards.PAWN_ATTACKS[side][stopCoordinate] & enemyPawns) != 0) {
+                    middlegame += BACKWARD_MIDDLEGAME;
+                    endgame += BACKWARD_ENDGAME;
+                }
+            }
+            if((FRONT_SPANS[side][coordinate] & pawns) != 0) {
+                middlegame += DOUBLED_MIDDLEGAME;
+                endgame += DOUBLED_ENDGAME;
+            }
+        }
+        return pack(middlegame, endgame);
+    }
+
+    private static long pack(final int middlegame, final int endgame) {
+        return ((long) middlegame << 32) | (endgame & 0xFFFFFFFFL);
+    }
+
+    private static long[] initColumns() {
+        final long[] columns = new long[BoardValues.NUM_TILES_PER_ROW];
+        for(int column = 0; column < columns.length; column++) {
+            columns[column] = BitBoards.FIRST_COLUMN << column;
+        }
+        return columns;
+    }
+
+    private static long[] initAdjacentColumns() {
+        final long[] adjacentColumns = new long[BoardValues.NUM_TILES_PER_ROW];
+        for(int column = 0; column < adjacentColumns.length; column++) {
+            if(column > 0) {
+                adjacentColumns[column] |= COLUMNS[column - 1];
+            }
+            if(column < adjacentColumns.length - 1) {
+                adjacentColumns[column] |= COLUMNS[column + 1];
+            }
+        }
+        return adjacentColumns;
+    }
+}
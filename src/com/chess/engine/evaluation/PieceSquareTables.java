@@ -0,0 +1,158 @@
+package com.chess.engine.evaluation;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.BoardValues;
+import com.chess.engine.pieces.Piece.PieceType;
+
+//Material plus piece-square values for the middlegame and the endgame, by piece index and tile.
+//Values of black pieces are negated, so a position's score is the plain sum over its pieces,
+//which boards can keep up to date with one addition per placed or removed piece.
+//The game phase runs from MAX_PHASE with all pieces on the board down to 0 with none left,
+//and the final score blends both sums by it.
+public class PieceSquareTables {
+
+    public static final int MAX_PHASE = 24;
+
+    //indexed by PieceType ordinal
+    private static final int[] MIDDLEGAME_VALUES = {100, 320, 330, 500, 900, 0};
+    private static final int[] ENDGAME_VALUES = {120, 300, 320, 520, 940, 0};
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+
+    //tables are written from white's side, first entry a8 like the tile coordinates
+    private static final int[] PAWN_MIDDLEGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0};
+
+    private static final int[] PAWN_ENDGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             20,  20,  20,  20,  20,  20,  20,  20,
+             10,  10,  10,  10,  10,  10,  10,  10,
+              5,   5,   5,   5,   5,   5,   5,   5,
+              0,   0,   0,   0,   0,   0,   0,   0};
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0};
+
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20};
+
+    //the king hides behind its pawns while queens are around and walks to the centre later
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20};
+
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+
+    //indexed by PieceType ordinal
+    private static final int[][] MIDDLEGAME_TABLES = {PAWN_MIDDLEGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDDLEGAME};
+    private static final int[][] ENDGAME_TABLES = {PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME};
+
+    //by BitBoards.pieceIndex and tile
+    private static final int[][] MIDDLEGAME = initScores(MIDDLEGAME_VALUES, MIDDLEGAME_TABLES);
+    private static final int[][] ENDGAME = initScores(ENDGAME_VALUES, ENDGAME_TABLES);
+    private static final int[] PHASES = initPhases();
+
+    private PieceSquareTables() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static int middlegameScore(final int pieceIndex, final int coordinate) {
+        return MIDDLEGAME[pieceIndex][coordinate];
+    }
+
+    public static int endgameScore(final int pieceIndex, final int coordinate) {
+        return ENDGAME[pieceIndex][coordinate];
+    }
+
+    public static int phase(final int pieceIndex) {
+        return PHASES[pieceIndex];
+    }
+
+    //blends both scores, promotions can push the phase past MAX_PHASE
+    public static int taper(final int middlegameScore, final int endgameScore, final int phase) {
+        final int middlegamePhase = Math.min(phase, MAX_PHASE);
+        return (middlegameScore * middlegamePhase + endgameScore * (MAX_PHASE - middlegamePhase)) / MAX_PHASE;
+    }
+
+    private static int[][] initScores(final int[] values, final int[][] tables) {
+        final int[][] scores = new int[BitBoards.NUM_PIECE_BITBOARDS][BoardValues.NUM_TILES];
+        for(final PieceType pieceType : PieceType.values()) {
+            final int white = BitBoards.pieceIndex(pieceType, Color.WHITE);
+            final int black = BitBoards.pieceIndex(pieceType, Color.BLACK);
+            for(int i = 0; i < BoardValues.NUM_TILES; i++) {
+                final int[] table = tables[pieceType.ordinal()];
+                scores[white][i] = values[pieceType.ordinal()] + table[i];
+                //black looks at the table upside down, a8 becomes a1
+                scores[black][i] = -(values[pieceType.ordinal()] + table[i ^ 56]);
+            }
+        }
+        return scores;
+    }
+
+    private static int[] initPhases() {
+        final int[] phases = new int[BitBoards.NUM_PIECE_BITBOARDS];
+        for(final PieceType pieceType : PieceType.values()) {
+            phases[BitBoards.pieceIndex(pieceType, Color.WHITE)] = PHASE_WEIGHTS[pieceType.ordinal()];
+            phases[BitBoards.pieceIndex(pieceType, Color.BLACK)] = PHASE_WEIGHTS[pieceType.ordinal()];
+        }
+        return phases;
+    }
+}
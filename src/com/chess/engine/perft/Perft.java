@@ -0,0 +1,195 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.EncodedMove;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.user.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.RecursiveTask;
+
+//Counts the leaf nodes of the legal move tree to a fixed depth, the numbers are
+//well known for many positions so any difference points to a move generation bug.
+//usage: Perft <depth> [--divide] [--parallel] [--hash <MB>] [--board]
+public class Perft {
+
+    private Perft() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    //make/unmake on a SearchBoard, table can be null
+    public static long perft(final SearchBoard board, final int depth, final PerftTable table) {
+        return count(board, depth, createMoveBuffers(depth), table);
+    }
+
+    //the same count through the immutable Board and Player.makeMove, used to cross check the gui path
+    public static long perft(final Board board, final int depth) {
+        if(depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for(final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if(transition.getMoveStatus().isDone()) {
+                nodes += perft(transition.getTransitionBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    //node count below every root move, keyed by coordinate notation
+    public static Map<String, Long> divide(final Board board,
+                                           final int depth,
+                                           final PerftTable table,
+                                           final boolean parallel) {
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int[] rootMoves = new int[MoveGenerator.MAX_MOVES];
+        final int numRootMoves = MoveGenerator.generateLegalMoves(searchBoard, rootMoves);
+        final Map<String, Long> counts = new TreeMap<>();
+        if(parallel) {
+            //one fork join task per root move, every task plays on its own SearchBoard
+            final List<RootMoveTask> tasks = new ArrayList<>(numRootMoves);
+            for(int i = 0; i < numRootMoves; i++) {
+                final RootMoveTask task = new RootMoveTask(board, rootMoves[i], depth, table);
+                task.fork();
+                tasks.add(task);
+            }
+            for(final RootMoveTask task : tasks) {
+                counts.put(EncodedMove.toString(task.rootMove), task.join());
+            }
+        } else {
+            final int[][] moveBuffers = createMoveBuffers(depth);
+            for(int i = 0; i < numRootMoves; i++) {
+                searchBoard.makeMove(rootMoves[i]);
+                counts.put(EncodedMove.toString(rootMoves[i]), count(searchBoard, depth - 1, moveBuffers, table));
+                searchBoard.unmakeMove();
+            }
+        }
+        return counts;
+    }
+
+    public static Map<String, Long> divide(final Board board, final int depth) {
+        final Map<String, Long> counts = new TreeMap<>();
+        for(final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if(transition.getMoveStatus().isDone()) {
+                counts.put(EncodedMove.toString(move.encode()), perft(transition.getTransitionBoard(), depth - 1));
+            }
+        }
+        return counts;
+    }
+
+    private static long count(final SearchBoard board,
+                              final int depth,
+                              final int[][] moveBuffers,
+                              final PerftTable table) {
+        if(depth == 0) {
+            return 1;
+        }
+        if(table != null && depth > 1) {
+            final long nodes = table.probe(board.getZobristKey(), depth);
+            if(nodes >= 0) {
+                return nodes;
+            }
+        }
+        final int[] moves = moveBuffers[depth];
+        final int numMoves = MoveGenerator.generateLegalMoves(board, moves);
+        //moves are strictly legal, the last ply needs no make/unmake
+        if(depth == 1) {
+            return numMoves;
+        }
+        long nodes = 0;
+        for(int i = 0; i < numMoves; i++) {
+            board.makeMove(moves[i]);
+            nodes += count(board, depth - 1, moveBuffers, table);
+            board.unmakeMove();
+        }
+        if(table != null) {
+            table.store(board.getZobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    //one buffer per remaining depth so the recursion never allocates
+    private static int[][] createMoveBuffers(final int depth) {
+        return new int[depth + 1][MoveGenerator.MAX_MOVES];
+    }
+
+    private static class RootMoveTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board root;
+        private final int rootMove;
+        private final int depth;
+        private final PerftTable table;
+
+        RootMoveTask(final Board root, final int rootMove, final int depth, final PerftTable table) {
+            this.root = root;
+            this.rootMove = rootMove;
+            this.depth = depth;
+            this.table = table;
+        }
+
+        @Override
+        protected Long compute() {
+            final SearchBoard board = new SearchBoard(this.root);
+            board.makeMove(this.rootMove);
+            return count(board, this.depth - 1, createMoveBuffers(this.depth), this.table);
+        }
+    }
+
+    public static void main(final String[] args) {
+        if(args.length == 0) {
+            System.out.println("usage: Perft <depth> [--divide] [--parallel] [--hash <MB>] [--board]");
+            return;
+        }
+        final int depth = Integer.parseInt(args[0]);
+        if(depth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1");
+        }
+        boolean showDivide = false;
+        boolean parallel = false;
+        boolean boardPath = false;
+        PerftTable table = null;
+        for(int i = 1; i < args.length; i++) {
+            switch(args[i]) {
+                case "--divide":
+                    showDivide = true;
+                    break;
+                case "--parallel":
+                    parallel = true;
+                    break;
+                case "--board":
+                    boardPath = true;
+                    break;
+                case "--hash":
+                    table = new PerftTable(Integer.parseInt(args[++i]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        final Board board = Board.createStandardBoard();
+        final long start = System.nanoTime();
+        final Map<String, Long> counts = boardPath ? divide(board, depth) : divide(board, depth, table, parallel);
+        final long elapsed = System.nanoTime() - start;
+
+        long nodes = 0;
+        for(final Map.Entry<String, Long> entry : counts.entrySet()) {
+            if(showDivide) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+            }
+            nodes += entry.getValue();
+        }
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsed / 1_000_000 + " ms");
+        System.out.println("Nodes/second: " + (long) (nodes / Math.max(elapsed / 1e9, 1e-9)));
+    }
+}
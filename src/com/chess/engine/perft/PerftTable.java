@@ -0,0 +1,45 @@
+package com.chess.engine.perft;
+
+//Subtree counts keyed by zobrist key and depth. Every entry is two longs, the key XORed
+//with the data and the data itself, so threads can share the table without locks:
+//a torn entry simply fails the key check and counts as a miss.
+public class PerftTable {
+
+    private static final int DEPTH_BITS = 6;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    //two longs per entry have to fit one array, so 8 GB at most
+    private static final int MAX_ENTRIES = 1 << 29;
+
+    private final long[] entries;
+    private final int indexMask;
+
+    public PerftTable(final int sizeInMegaBytes) {
+        //power of two number of entries so the index is a mask of the key
+        final long requestedEntries = Math.max(1L, (long) sizeInMegaBytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        final int numEntries = Integer.highestOneBit((int) Math.min(requestedEntries, MAX_ENTRIES));
+        this.entries = new long[2 * numEntries];
+        this.indexMask = numEntries - 1;
+    }
+
+    //-1 when the subtree has not been counted yet
+    public long probe(final long zobristKey, final int depth) {
+        final int index = index(zobristKey);
+        final long data = this.entries[index + 1];
+        if((this.entries[index] ^ data) == zobristKey && (data & DEPTH_MASK) == depth) {
+            return data >>> DEPTH_BITS;
+        }
+        return -1;
+    }
+
+    public void store(final long zobristKey, final int depth, final long nodes) {
+        final int index = index(zobristKey);
+        final long data = nodes << DEPTH_BITS | depth;
+        this.entries[index] = zobristKey ^ data;
+        this.entries[index + 1] = data;
+    }
+
+    private int index(final long zobristKey) {
+        return ((int) zobristKey & this.indexMask) << 1;
+    }
+}
@@ -2,72 +2,35 @@ package com.chess.engine.pieces;
 
 import com.chess.engine.Color;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardValues;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public class Bishop extends Piece {
 
-    private final static int[] CANDIDATE_MOVE_VECTOR_COORDINATES = { -9, -7, 7, 9 };
-
     public Bishop(Color pieceColor, int piecePosition) {
-        super(PieceType.BISHOP,piecePosition, pieceColor);
+        this(pieceColor, piecePosition, true);
+    }
+
+    public Bishop(final Color pieceColor,
+                  final int piecePosition,
+                  final boolean isFirstMove) {
+        super(PieceType.BISHOP, piecePosition, pieceColor, isFirstMove);
     }
 
     @Override
     public Collection<Move> calculateLegalMoves(final Board board) {
-
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (int candidateCoordinateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition;
-            while (BoardValues.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if(isFirstColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset)||
-                isEightColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset)){
-                    break;
-                }
-                candidateDestinationCoordinate += candidateCoordinateOffset;
-                if (BoardValues.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) { // is there anything on the desired destination?
-                        legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Color pieceColor = pieceAtDestination.getPieceAlliance();
-
-                        if (this.pieceColor != pieceColor) { // if it is occupied, is it the same color? if not then...
-                            legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break;
-                    }
-
-                }
-            }
-
-        }
-        return ImmutableList.copyOf(legalMoves);
+        return createMoves(board, BitBoards.bishopAttacks(this.piecePosition, board.getOccupancy()));
     }
 
     @Override
     public Bishop movePiece(final Move move) {
-        return new Bishop(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate());
+        return new Bishop(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
     }
 
     @Override
     public String toString(){
         return PieceType.BISHOP.toString();
         }
-
-        private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset){
-        return BoardValues.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == 7);
-    }
-
-        private static boolean isEightColumnExclusion(final int currentPosition, final int candidateOffset){
-        return BoardValues.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7|| candidateOffset == 9 );
-}
 }
@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.List;
 
 import com.chess.engine.Color;
+import com.chess.engine.board.BitBoards;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardValues;
 import com.chess.engine.board.Move;
@@ -13,81 +14,83 @@ import com.google.common.collect.ImmutableList;
 
 public class Pawn extends Piece {
 
-	private final static int[] CANDIDATE_MOVE_COORDINATE = {8,16,7,9};
+	private final static PieceType[] PROMOTION_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
 
 	public Pawn(final Color pieceColor,
 			    final int piecePosition) {
-		super(PieceType.PAWN, piecePosition, pieceColor);
+		this(pieceColor, piecePosition, true);
+	}
+
+	public Pawn(final Color pieceColor,
+			    final int piecePosition,
+			    final boolean isFirstMove) {
+		super(PieceType.PAWN, piecePosition, pieceColor, isFirstMove);
 	}
 
 	@Override
 	public Collection<Move> calculateLegalMoves(final Board board) {
 
 		final List<Move> legalMoves = new ArrayList<>();
+		final int forwardOffset = this.pieceColor.getDirection() * BoardValues.NUM_TILES_PER_ROW;
 
-		for (final int currentCandidateOffset : CANDIDATE_MOVE_COORDINATE ) {// Go thru legal moves
-			final int candidateDestinationCoordinate = this.piecePosition + (this.getPieceAlliance().getDirection() *currentCandidateOffset);
-			if(!BoardValues.isValidTileCoordinate(candidateDestinationCoordinate)) { // is it a legal move??
-				continue;
-			}
-			if(currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
+		final int candidateDestinationCoordinate = this.piecePosition + forwardOffset;
+		if(BoardValues.isValidTileCoordinate(candidateDestinationCoordinate) &&
+		   !board.isTileOccupied(candidateDestinationCoordinate)) {
+			if(isPromotionCoordinate(candidateDestinationCoordinate)) {
+				addPromotions(board, candidateDestinationCoordinate, null, legalMoves);
+			} else {
 				legalMoves.add(new PawnMove(board, this, candidateDestinationCoordinate));
 			}
 			//checking pawn specified moves possibilities
-			else if(currentCandidateOffset == 16 && this.isFirstMove() &&
-				   ((BoardValues.SECOND_ROW[this.piecePosition] && this.getPieceAlliance().isBlack()) ||
-				   (BoardValues.SEVENTH_ROW[this.piecePosition] && this.getPieceAlliance().isWhite()))) {
-				final int behindCandidateDestinationCoordinate = this.piecePosition + (this.pieceColor.getDirection() * 8);
-				if (!board.getTile(behindCandidateDestinationCoordinate).isTileOccupied() &&
-					!board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-					legalMoves.add(new PawnJump(board, this, candidateDestinationCoordinate));
-				}
+			final long startingRow = this.pieceColor.isWhite() ? BitBoards.SEVENTH_ROW : BitBoards.SECOND_ROW;
+			final int jumpDestinationCoordinate = candidateDestinationCoordinate + forwardOffset;
+			if(this.isFirstMove() && BitBoards.isSet(startingRow, this.piecePosition) &&
+			   !board.isTileOccupied(jumpDestinationCoordinate)) {
+				legalMoves.add(new PawnJump(board, this, jumpDestinationCoordinate));
 			}
-			//checking pawn specified moves possibilities
-			else if(currentCandidateOffset == 7 &&
-					!(BoardValues.EIGHTH_COLUMN[this.piecePosition] && this.pieceColor.isWhite() ||
-					BoardValues.FIRST_COLUMN[this.piecePosition] && this.pieceColor.isBlack())) {
-				if(board.getTile(candidateDestinationCoordinate).isTileOccupied()) { // is there anything on the desired destination?
-					final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-					if(this.pieceColor != pieceOnCandidate.getPieceAlliance()) {
-						legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-					}
-				} else if(board.getEnPassantPawn() != null) {
-					if (board.getEnPassantPawn().getPiecePosition() == (this.piecePosition + (this.pieceColor.getFacingDirection()))) {
-						final Piece pieceOnCandidate = board.getEnPassantPawn();
-						if (this.pieceColor != pieceOnCandidate.getPieceAlliance()) {
-							legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                     }
-                 }
-				}
-				}
-
-			else if(currentCandidateOffset == 9 &&
-					!(BoardValues.EIGHTH_COLUMN[this.piecePosition] && this.pieceColor.isBlack() ||
-					BoardValues.FIRST_COLUMN[this.piecePosition] && this.pieceColor.isWhite())) {
-				if(board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-					final Piece pieceOnCandidate = board.getTile(candidateDestinationCoordinate).getPiece();
-					if(this.pieceColor != pieceOnCandidate.getPieceAlliance()) {
-						legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-					}
-				} else if(board.getEnPassantPawn() != null) {
-					if (board.getEnPassantPawn().getPiecePosition() == (this.piecePosition + (this.pieceColor.getFacingDirection()))) {
-						final Piece pieceOnCandidate = board.getEnPassantPawn();
-						if (this.pieceColor != pieceOnCandidate.getPieceAlliance()) {
-							legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, pieceOnCandidate));
-                     }
-					}
-                 }
+		}
+
+		final long attackedTiles = BitBoards.PAWN_ATTACKS[this.pieceColor.ordinal()][this.piecePosition];
+		long captures = attackedTiles & board.getOccupancy(this.pieceColor == Color.WHITE ? Color.BLACK : Color.WHITE);
+		while(captures != 0) {
+			final int attackCoordinate = Long.numberOfTrailingZeros(captures);
+			captures &= captures - 1;
+			if(isPromotionCoordinate(attackCoordinate)) {
+				addPromotions(board, attackCoordinate, board.getPiece(attackCoordinate), legalMoves);
+			} else {
+				legalMoves.add(new PawnAttackMove(board, this, attackCoordinate, board.getPiece(attackCoordinate)));
 			}
 		}
 
-			return ImmutableList.copyOf(legalMoves);
+		//the en passant tile is the one the enemy pawn jumped over
+		final Pawn enPassantPawn = board.getEnPassantPawn();
+		if(enPassantPawn != null && enPassantPawn.getPieceAlliance() != this.pieceColor) {
+			final int enPassantCoordinate = enPassantPawn.getPiecePosition() + forwardOffset;
+			if(BitBoards.isSet(attackedTiles, enPassantCoordinate)) {
+				legalMoves.add(new PawnEnPassantAttackMove(board, this, enPassantCoordinate, enPassantPawn));
+			}
+		}
+
+		return ImmutableList.copyOf(legalMoves);
+	}
 
+	private static boolean isPromotionCoordinate(final int coordinate) {
+		return BoardValues.FIRST_ROW[coordinate] || BoardValues.EIGHTH_ROW[coordinate];
+	}
+
+	//a pawn reaching the last row can turn into any of these pieces
+	private void addPromotions(final Board board,
+							   final int destinationCoordinate,
+							   final Piece attackedPiece,
+							   final List<Move> legalMoves) {
+		for(final PieceType promotionType : PROMOTION_TYPES) {
+			legalMoves.add(new PawnPromotion(board, this, destinationCoordinate, attackedPiece, promotionType));
 		}
+	}
 
 	@Override
 	public Pawn movePiece(final Move move) {
-		return new Pawn (move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate());
+		return new Pawn(move.getMovedPiece().getPieceAlliance(), move.getDestinationCoordinate(), false);
 	}
 
 	@Override
@@ -3,26 +3,56 @@ package com.chess.engine.pieces;
 import com.chess.engine.Color;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public abstract class Piece {
     protected final PieceType pieceType;
     protected final int piecePosition;
     protected final Color pieceColor;
-    public static boolean isFirstMove;
+    //set once at construction, a moved piece is a new instance, so pieces can be shared between threads
+    protected final boolean isFirstMove;
 
     Piece(final PieceType pieceType,
           final int piecePosition,
-          final Color pieceColor) {
+          final Color pieceColor,
+          final boolean isFirstMove) {
      this.pieceColor = pieceColor;
      this.piecePosition = piecePosition;
      this.pieceType = pieceType;
-     //TODO more work here
-     this.isFirstMove = false;
+     this.isFirstMove = isFirstMove;
     }
 
 
+    public static Piece createPiece(final PieceType pieceType,
+                                    final Color pieceColor,
+                                    final int piecePosition) {
+        return createPiece(pieceType, pieceColor, piecePosition, true);
+    }
+
+    public static Piece createPiece(final PieceType pieceType,
+                                    final Color pieceColor,
+                                    final int piecePosition,
+                                    final boolean isFirstMove) {
+        switch (pieceType) {
+            case PAWN:
+                return new Pawn(pieceColor, piecePosition, isFirstMove);
+            case KNIGHT:
+                return new Knight(pieceColor, piecePosition, isFirstMove);
+            case BISHOP:
+                return new Bishop(pieceColor, piecePosition, isFirstMove);
+            case ROOK:
+                return new Rook(pieceColor, piecePosition, isFirstMove);
+            case QUEEN:
+                return new Queen(pieceColor, piecePosition, isFirstMove);
+            default:
+                return new King(pieceColor, piecePosition, isFirstMove);
+        }
+    }
+
     public int getPiecePosition(){
         return this.piecePosition;
     }
@@ -41,6 +71,26 @@ public abstract class Piece {
     }
     public abstract Collection<Move> calculateLegalMoves(final Board board);
 
+    //turns a bitboard of reachable tiles into moves, destinations holding an enemy piece become attacks
+    protected Collection<Move> createMoves(final Board board,
+                                           final long attackedTiles) {
+        final long candidateDestinations = attackedTiles & ~board.getOccupancy(this.pieceColor);
+        final List<Move> legalMoves = new ArrayList<>(Long.bitCount(candidateDestinations));
+
+        long remaining = candidateDestinations;
+        while (remaining != 0) {
+            final int candidateDestinationCoordinate = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            final Piece pieceAtDestination = board.getPiece(candidateDestinationCoordinate);
+            if (pieceAtDestination == null) {
+                legalMoves.add(new Move.MajorMove(board, this, candidateDestinationCoordinate));
+            } else {
+                legalMoves.add(new Move.AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
+            }
+        }
+        return ImmutableList.copyOf(legalMoves);
+    }
+
     public abstract Piece movePiece(Move move);
 
     public enum PieceType{
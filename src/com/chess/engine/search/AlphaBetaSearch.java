@@ -0,0 +1,291 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.endgame.Bitbases;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+//Iterative deepening negamax with alpha-beta pruning. The tree is searched with make/unmake
+//on a SearchBoard and the strictly legal generator, only the result is decoded into Board moves.
+//With more than one thread the search is Lazy SMP: helper threads search the same root at
+//staggered depths and only share the transposition table with the main thread, whose
+//iterations are the results. One thread searches deterministically.
+//One instance searches one position at a time; stop() and ponderHit() may be called from any thread.
+//A ponder search runs on the opponent's time and gets its limits only once the reply it assumed
+//was played, so the table is already filled with the position the engine has to answer.
+//Results are kept in a transposition table, and move ordering in killer and history tables
+//per thread, that all survive between searches of the same game.
+//With bitbases set, endings they cover are known wins, draws or losses at once.
+public class AlphaBetaSearch implements MoveStrategy {
+
+    public static final int MAX_PLY = 128;
+    public static final int INFINITY = 32000;
+    public static final int MATE_SCORE = 31000;
+    public static final int DRAW_SCORE = 0;
+    public static final int DEFAULT_HASH_SIZE = 16;
+    //game positions kept for repetitions, far more than the fifty move rule lets pass
+    private static final int MAX_GAME_HISTORY = 256;
+
+    private final SearchLimits limits;
+    //limits of the search running now, the default ones unless the caller passed others
+    private SearchLimits activeLimits;
+    private final TranspositionTable transpositionTable;
+    private final SearchWorker[] workers;
+    private SearchListener listener;
+    //selective search switches, read at the start of every search
+    private boolean nullMovePruning = true;
+    private boolean lateMoveReductions = true;
+    private boolean futilityPruning = true;
+    //read at the start of every search as well, null for none
+    private Bitbases bitbases;
+    //keys of the game positions before the root since its last capture or pawn move, oldest first
+    private long[] gameHistory = new long[0];
+
+    //moved to the ponder hit when pondering, so the limits count from there
+    private volatile long startTime;
+    //a pondering search ignores node and time limits until ponderHit
+    private volatile boolean pondering;
+    private volatile boolean stopRequested;
+    private volatile boolean helpersStopped;
+
+    public AlphaBetaSearch(final SearchLimits limits) {
+        this(limits, new TranspositionTable(DEFAULT_HASH_SIZE));
+    }
+
+    public AlphaBetaSearch(final SearchLimits limits, final TranspositionTable transpositionTable) {
+        this(limits, transpositionTable, 1);
+    }
+
+    public AlphaBetaSearch(final SearchLimits limits, final TranspositionTable transpositionTable, final int threads) {
+        this.limits = limits;
+        this.transpositionTable = transpositionTable;
+        this.workers = new SearchWorker[Math.max(1, threads)];
+        for(int i = 0; i < this.workers.length; i++) {
+            this.workers[i] = new SearchWorker(this, transpositionTable, i);
+        }
+    }
+
+    public void setSearchListener(final SearchListener listener) {
+        this.listener = listener;
+    }
+
+    public void setNullMovePruning(final boolean nullMovePruning) {
+        this.nullMovePruning = nullMovePruning;
+    }
+
+    public void setLateMoveReductions(final boolean lateMoveReductions) {
+        this.lateMoveReductions = lateMoveReductions;
+    }
+
+    public void setFutilityPruning(final boolean futilityPruning) {
+        this.futilityPruning = futilityPruning;
+    }
+
+    public void setBitbases(final Bitbases bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    public Bitbases getBitbases() {
+        return this.bitbases;
+    }
+
+    //Positions the game went through before the next root, oldest first and since its last capture
+    //or pawn move, so the search avoids or seeks repetitions of the game. Set again for every new root.
+    public void setGameHistory(final long[] zobristKeys) {
+        this.gameHistory = Arrays.copyOfRange(zobristKeys, Math.max(0, zobristKeys.length - MAX_GAME_HISTORY),
+                zobristKeys.length);
+    }
+
+    long[] getGameHistory() {
+        return this.gameHistory;
+    }
+
+    public boolean isNullMovePruning() {
+        return this.nullMovePruning;
+    }
+
+    public boolean isLateMoveReductions() {
+        return this.lateMoveReductions;
+    }
+
+    public boolean isFutilityPruning() {
+        return this.futilityPruning;
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        return search(board).getBestMove();
+    }
+
+    public SearchResult search(final Board root) {
+        return search(root, this.limits);
+    }
+
+    //searches with other limits than the default ones, e.g. as a time manager allocated them
+    public SearchResult search(final Board root, final SearchLimits limits) {
+        return search(root, limits, false, new CountDownLatch(1));
+    }
+
+    //A caller that runs the search on another thread waits for started before it may stop it,
+    //earlier calls are undone when the search starts. Counted down even if the search ends at once.
+    public SearchResult search(final Board root, final SearchLimits limits, final CountDownLatch started) {
+        return search(root, limits, false, started);
+    }
+
+    //Searches the position expected after the opponent's reply while the opponent thinks.
+    //Node and time limits only apply from ponderHit on, stop ends the search as usual.
+    //Stop and ponderHit may be called once started is counted down.
+    public SearchResult ponder(final Board root, final SearchLimits limits, final CountDownLatch started) {
+        return search(root, limits, true, started);
+    }
+
+    //the opponent played the expected reply, the pondering search continues as a normal one
+    //whose limits count from now on. May be called from any thread.
+    public void ponderHit() {
+        this.startTime = System.nanoTime();
+        this.pondering = false;
+    }
+
+    public boolean isPondering() {
+        return this.pondering;
+    }
+
+    private SearchResult search(final Board root, final SearchLimits limits, final boolean ponder,
+                                final CountDownLatch started) {
+        this.activeLimits = limits;
+        this.pondering = ponder;
+        this.startTime = System.nanoTime();
+        this.stopRequested = false;
+        this.helpersStopped = false;
+        this.transpositionTable.newSearch();
+        //from here on stop and ponderHit are heard
+        started.countDown();
+
+        final Thread[] helpers = new Thread[this.workers.length - 1];
+        for(int i = 0; i < helpers.length; i++) {
+            final SearchWorker helper = this.workers[i + 1];
+            helpers[i] = new Thread(() -> helper.searchHelper(root, limits), "search-helper-" + i);
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        final SearchResult result = this.workers[0].searchMain(root, limits);
+
+        this.helpersStopped = true;
+        for(final Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        this.pondering = false;
+        return result;
+    }
+
+    //may be called from another thread, the search returns the last completed iteration
+    public void stop() {
+        this.stopRequested = true;
+    }
+
+    //nodes of all threads, exact once the search returned
+    public long getNodes() {
+        long nodes = 0;
+        for(final SearchWorker worker : this.workers) {
+            nodes += worker.getReportedNodes();
+        }
+        return nodes;
+    }
+
+    //forgets everything learned in the game so far: the transposition table and move ordering
+    public void newGame() {
+        this.transpositionTable.clear();
+        for(final SearchWorker worker : this.workers) {
+            worker.clear();
+        }
+    }
+
+    //counters of the last search over all threads, exact once it returned
+    public SearchStatistics getStatistics() {
+        final SearchStatistics statistics = new SearchStatistics();
+        for(final SearchWorker worker : this.workers) {
+            statistics.add(worker.getStatistics());
+        }
+        return statistics;
+    }
+
+    public int getThreads() {
+        return this.workers.length;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
+    SearchResult iterationComplete(final Board root, final int[] principalVariation, final int score, final int depth) {
+        final SearchResult result = new SearchResult(root, principalVariation, score, depth, getNodes(), elapsedMillis());
+        if(this.listener != null) {
+            this.listener.onIterationComplete(result);
+        }
+        return result;
+    }
+
+    boolean isLimitReached() {
+        return this.stopRequested || (!this.pondering && (getNodes() >= this.activeLimits.getNodes() ||
+                elapsedMillis() >= this.activeLimits.getTimeMillis()));
+    }
+
+    //whether another iteration is likely to finish within the time limit
+    boolean hasTimeForIteration() {
+        return this.pondering || !this.activeLimits.hasTimeLimit() ||
+                elapsedMillis() * 2 <= this.activeLimits.getTimeMillis();
+    }
+
+    boolean isHelperStopped() {
+        return this.helpersStopped || this.stopRequested;
+    }
+
+    long elapsedMillis() {
+        return (System.nanoTime() - this.startTime) / 1_000_000;
+    }
+
+    //usage: AlphaBetaSearch <depth> [threads] [--no-null-move] [--no-lmr] [--no-futility],
+    //searches the standard position and reports nodes per second and the time to every depth,
+    //then how often the selective techniques that are switched on fired
+    public static void main(final String[] args) {
+        int depth = 6;
+        int threads = 1;
+        int position = 0;
+        boolean nullMovePruning = true;
+        boolean lateMoveReductions = true;
+        boolean futilityPruning = true;
+        for(final String arg : args) {
+            switch(arg) {
+                case "--no-null-move":
+                    nullMovePruning = false;
+                    break;
+                case "--no-lmr":
+                    lateMoveReductions = false;
+                    break;
+                case "--no-futility":
+                    futilityPruning = false;
+                    break;
+                default:
+                    if(position++ == 0) {
+                        depth = Integer.parseInt(arg);
+                    } else {
+                        threads = Integer.parseInt(arg);
+                    }
+            }
+        }
+        final AlphaBetaSearch search = new AlphaBetaSearch(SearchLimits.depth(depth),
+                new TranspositionTable(DEFAULT_HASH_SIZE), threads);
+        search.setNullMovePruning(nullMovePruning);
+        search.setLateMoveReductions(lateMoveReductions);
+        search.setFutilityPruning(futilityPruning);
+        search.setSearchListener(System.out::println);
+        search.search(Board.createStandardBoard());
+        System.out.println(search.getStatistics());
+    }
+}
@@ -0,0 +1,132 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.endgame.Bitbases;
+import com.chess.engine.evaluation.PawnCache;
+import com.chess.engine.evaluation.PawnStructure;
+import com.chess.engine.evaluation.PieceSquareTables;
+import com.chess.engine.pieces.Piece.PieceType;
+
+//Static evaluation in centipawns from the point of view of the side to move.
+//Material, piece-square values and game phase come incrementally from the SearchBoard,
+//so a leaf only blends them and adds the few terms that depend on more than one piece.
+//Pawn structure comes from a cache keyed by the pawns, which makes an evaluator per thread.
+//Endings in the bitbases score as known: a win far above any material balance but below
+//the mates, plus mop-up terms that lead the search towards the mate.
+public class Evaluator {
+
+    //indexed by PieceType ordinal, used to order and weigh captures
+    private static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    private static final int BISHOP_PAIR_MIDDLEGAME = 30;
+    private static final int BISHOP_PAIR_ENDGAME = 50;
+
+    private static final int KNOWN_WIN = 10000;
+    private static final int MOP_UP_EDGE = 20;
+    private static final int MOP_UP_KINGS = 10;
+    private static final int MOP_UP_CORNER = 40;
+    private static final int PAWN_ADVANCE = 20;
+
+    private final PawnCache pawnCache = new PawnCache();
+    private Bitbases bitbases;
+
+    //null for none
+    public void setBitbases(final Bitbases bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    public int evaluate(final SearchBoard board) {
+        if(this.bitbases != null) {
+            switch(this.bitbases.probe(board)) {
+                case Bitbases.WIN:
+                    return knownWin(board, board.getMoveMaker());
+                case Bitbases.LOSS:
+                    return -knownWin(board, board.getMoveMaker().isWhite() ? Color.BLACK : Color.WHITE);
+                case Bitbases.DRAW:
+                    return AlphaBetaSearch.DRAW_SCORE;
+                default:
+                    break;
+            }
+        }
+        final int pawnSlot = this.pawnCache.probe(board);
+        int middlegameScore = board.getMiddlegameScore() + this.pawnCache.getMiddlegameScore(pawnSlot) +
+                kingShield(board, pawnSlot, Color.WHITE) - kingShield(board, pawnSlot, Color.BLACK);
+        int endgameScore = board.getEndgameScore() + this.pawnCache.getEndgameScore(pawnSlot);
+        if(hasBishopPair(board, Color.WHITE)) {
+            middlegameScore += BISHOP_PAIR_MIDDLEGAME;
+            endgameScore += BISHOP_PAIR_ENDGAME;
+        }
+        if(hasBishopPair(board, Color.BLACK)) {
+            middlegameScore -= BISHOP_PAIR_MIDDLEGAME;
+            endgameScore -= BISHOP_PAIR_ENDGAME;
+        }
+        final int score = PieceSquareTables.taper(middlegameScore, endgameScore, board.getPhase());
+        return board.getMoveMaker().isWhite() ? score : -score;
+    }
+
+    public PawnCache getPawnCache() {
+        return this.pawnCache;
+    }
+
+    public static int getPieceValue(final PieceType pieceType) {
+        return PIECE_VALUES[pieceType.ordinal()];
+    }
+
+    //pawns in front of a king that stays on its two back rows, a king further up has no shield
+    private int kingShield(final SearchBoard board, final int pawnSlot, final Color color) {
+        final int kingCoordinate = board.getKingCoordinate(color);
+        final int row = kingCoordinate >>> 3;
+        if(color.isWhite() ? row < 6 : row > 1) {
+            return 0;
+        }
+        return this.pawnCache.getShield(pawnSlot, color, PawnStructure.zone(kingCoordinate));
+    }
+
+    //The lone king is driven to the edge with the strong king close by, against bishop and knight
+    //into a corner the bishop covers. A pawn scores by advancing, and the material makes the queen
+    //it promotes to score higher still.
+    private static int knownWin(final SearchBoard board, final Color strong) {
+        final int strongKing = board.getKingCoordinate(strong);
+        final int weakKing = board.getKingCoordinate(strong.isWhite() ? Color.BLACK : Color.WHITE);
+        int score = KNOWN_WIN + MOP_UP_EDGE * centerDistance(weakKing) +
+                MOP_UP_KINGS * (7 - distance(strongKing, weakKing));
+        for(final PieceType pieceType : PieceType.values()) {
+            score += getPieceValue(pieceType) * Long.bitCount(board.getPieceBitBoard(pieceType, strong));
+        }
+        final long bishops = board.getPieceBitBoard(PieceType.BISHOP, strong);
+        if(bishops != 0) {
+            //a8 and h1 are light, a1 and h8 dark
+            final boolean light = isLight(Long.numberOfTrailingZeros(bishops));
+            final int cornerDistance = light ? Math.min(distance(weakKing, 0), distance(weakKing, 63)) :
+                    Math.min(distance(weakKing, 7), distance(weakKing, 56));
+            score += MOP_UP_CORNER * (7 - cornerDistance);
+        }
+        final long pawns = board.getPieceBitBoard(PieceType.PAWN, strong);
+        if(pawns != 0) {
+            final int row = Long.numberOfTrailingZeros(pawns) >>> 3;
+            score += PAWN_ADVANCE * (strong.isWhite() ? 6 - row : row - 1);
+        }
+        return score;
+    }
+
+    //rows plus columns to the four center tiles, 0 to 6
+    private static int centerDistance(final int coordinate) {
+        final int row = coordinate >>> 3;
+        final int column = coordinate & 7;
+        return Math.max(3 - row, row - 4) + Math.max(3 - column, column - 4);
+    }
+
+    //king moves from one tile to the other
+    private static int distance(final int from, final int to) {
+        return Math.max(Math.abs((from >>> 3) - (to >>> 3)), Math.abs((from & 7) - (to & 7)));
+    }
+
+    private static boolean isLight(final int coordinate) {
+        return (((coordinate >>> 3) + (coordinate & 7)) & 1) == 0;
+    }
+
+    private static boolean hasBishopPair(final SearchBoard board, final Color color) {
+        return Long.bitCount(board.getPieceBitBoard(PieceType.BISHOP, color)) >= 2;
+    }
+}
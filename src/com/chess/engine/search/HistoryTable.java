@@ -0,0 +1,69 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.BoardValues;
+import com.chess.engine.board.EncodedMove;
+
+import java.util.Arrays;
+
+//Butterfly history: a score per color and from/to tiles of quiet moves, raised when the move
+//cut off and lowered for the quiet moves searched before it in vain. Updates pull the score
+//towards the bound, so it stays within +-MAX_SCORE however long the game runs.
+//Owned by one search thread and kept over the searches of a game, halved every iteration
+//so older results give way to what the current search finds.
+final class HistoryTable {
+
+    static final int MAX_SCORE = 1 << 14;
+    //deeper cutoffs earn more, up to this depth
+    private static final int MAX_BONUS_DEPTH = 16;
+
+    //by color ordinal, then index()
+    private final int[][] scores = new int[2][BoardValues.NUM_TILES * BoardValues.NUM_TILES];
+
+    int get(final Color color, final int move) {
+        return this.scores[color.ordinal()][index(move)];
+    }
+
+    //the scores of one color, for sorting many moves at once
+    int[] getScores(final Color color) {
+        return this.scores[color.ordinal()];
+    }
+
+    void reward(final Color color, final int move, final int depth) {
+        update(color, move, bonus(depth));
+    }
+
+    void penalize(final Color color, final int move, final int depth) {
+        update(color, move, -bonus(depth));
+    }
+
+    void age() {
+        for(final int[] colorScores : this.scores) {
+            for(int i = 0; i < colorScores.length; i++) {
+                colorScores[i] /= 2;
+            }
+        }
+    }
+
+    void clear() {
+        for(final int[] colorScores : this.scores) {
+            Arrays.fill(colorScores, 0);
+        }
+    }
+
+    //from and to tile of the move in 12 bits
+    static int index(final int move) {
+        return EncodedMove.getCurrentCoordinate(move) << 6 | EncodedMove.getDestinationCoordinate(move);
+    }
+
+    private void update(final Color color, final int move, final int bonus) {
+        final int[] colorScores = this.scores[color.ordinal()];
+        final int index = index(move);
+        colorScores[index] += bonus - colorScores[index] * Math.abs(bonus) / MAX_SCORE;
+    }
+
+    private static int bonus(final int depth) {
+        final int boundedDepth = Math.min(depth, MAX_BONUS_DEPTH);
+        return boundedDepth * boundedDepth;
+    }
+}
@@ -0,0 +1,56 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.EncodedMove;
+
+import java.util.Arrays;
+
+//Quiet moves that caused a cutoff, two per ply. A killer from one branch is tried early in the
+//sibling branches of the same ply, where it often refutes the opponent's move again.
+//Owned by one search thread and kept over the searches of a game.
+final class KillerTable {
+
+    static final int NUM_KILLERS = 2;
+    //a game moves on by the engine's move and the reply between two searches
+    private static final int PLIES_BETWEEN_SEARCHES = 2;
+
+    private final int[][] killers;
+
+    KillerTable(final int maxPly) {
+        this.killers = new int[maxPly][NUM_KILLERS];
+    }
+
+    int getFirst(final int ply) {
+        return this.killers[ply][0];
+    }
+
+    int getSecond(final int ply) {
+        return this.killers[ply][1];
+    }
+
+    //the move becomes the first killer, the old first one moves down
+    void update(final int ply, final int move) {
+        final int[] plyKillers = this.killers[ply];
+        if(plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+    }
+
+    //the ply 2 of the last search is the root of the next one, so the killers move up with it
+    void newSearch() {
+        for(int ply = 0; ply < this.killers.length; ply++) {
+            final int source = ply + PLIES_BETWEEN_SEARCHES;
+            if(source < this.killers.length) {
+                System.arraycopy(this.killers[source], 0, this.killers[ply], 0, NUM_KILLERS);
+            } else {
+                Arrays.fill(this.killers[ply], EncodedMove.NO_MOVE);
+            }
+        }
+    }
+
+    void clear() {
+        for(final int[] plyKillers : this.killers) {
+            Arrays.fill(plyKillers, EncodedMove.NO_MOVE);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.EncodedMove;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+//Hands out the moves of a node one at a time, in stages: the hash move, captures by most valuable
+//victim and least valuable attacker, the killer moves, then quiet moves by history score.
+//A stage is only generated once the one before is used up, so a node that cuts off on the hash
+//move or a capture never generates its quiet moves. Moves of earlier stages are not repeated.
+//The search keeps one picker per ply and reuses it for every node on that ply.
+final class MovePicker {
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int GENERATE_QUIETS = 5;
+    private static final int QUIETS = 6;
+    private static final int DONE = 7;
+
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+
+    private SearchBoard board;
+    private int[] history;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private boolean capturesOnly;
+    private int stage;
+    private int index;
+    private int numMoves;
+
+    //every legal move, the killers come from the same ply of other branches
+    void init(final SearchBoard board,
+              final int hashMove,
+              final int firstKiller,
+              final int secondKiller,
+              final int[] history) {
+        this.board = board;
+        this.history = history;
+        this.hashMove = MoveGenerator.isLegal(board, hashMove) ? hashMove : EncodedMove.NO_MOVE;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        this.capturesOnly = false;
+        this.stage = HASH_MOVE;
+    }
+
+    //captures and promotions only, as the quiescence search wants them
+    void initCaptures(final SearchBoard board) {
+        this.board = board;
+        this.hashMove = EncodedMove.NO_MOVE;
+        this.capturesOnly = true;
+        this.stage = GENERATE_CAPTURES;
+    }
+
+    //the next move to try, NO_MOVE once all are handed out
+    int next() {
+        while(true) {
+            switch(this.stage) {
+                case HASH_MOVE:
+                    this.stage = GENERATE_CAPTURES;
+                    if(this.hashMove != EncodedMove.NO_MOVE) {
+                        return this.hashMove;
+                    }
+                    break;
+                case GENERATE_CAPTURES:
+                    this.numMoves = MoveGenerator.generateLegalCaptures(this.board, this.moves);
+                    this.index = 0;
+                    scoreCaptures();
+                    this.stage = CAPTURES;
+                    break;
+                case CAPTURES:
+                    if(this.index < this.numMoves) {
+                        final int move = pickBest();
+                        if(move != this.hashMove) {
+                            return move;
+                        }
+                        break;
+                    }
+                    this.stage = this.capturesOnly ? DONE : FIRST_KILLER;
+                    break;
+                case FIRST_KILLER:
+                    this.stage = SECOND_KILLER;
+                    if(isUsableKiller(this.firstKiller)) {
+                        return this.firstKiller;
+                    }
+                    break;
+                case SECOND_KILLER:
+                    this.stage = GENERATE_QUIETS;
+                    if(this.secondKiller != this.firstKiller && isUsableKiller(this.secondKiller)) {
+                        return this.secondKiller;
+                    }
+                    break;
+                case GENERATE_QUIETS:
+                    this.numMoves = MoveGenerator.generateLegalQuiets(this.board, this.moves);
+                    this.index = 0;
+                    scoreQuiets();
+                    this.stage = QUIETS;
+                    break;
+                case QUIETS:
+                    if(this.index < this.numMoves) {
+                        final int move = pickBest();
+                        if(move != this.hashMove && move != this.firstKiller && move != this.secondKiller) {
+                            return move;
+                        }
+                        break;
+                    }
+                    this.stage = DONE;
+                    break;
+                default:
+                    return EncodedMove.NO_MOVE;
+            }
+        }
+    }
+
+    //killers are quiet moves that cut off elsewhere, they still have to be legal here
+    private boolean isUsableKiller(final int killer) {
+        return killer != EncodedMove.NO_MOVE && killer != this.hashMove &&
+               !EncodedMove.isCapture(killer) && !EncodedMove.isPromotion(killer) &&
+               MoveGenerator.isLegal(this.board, killer);
+    }
+
+    private void scoreCaptures() {
+        for(int i = 0; i < this.numMoves; i++) {
+            final int move = this.moves[i];
+            final int victim = EncodedMove.isCapture(move) ?
+                    Evaluator.getPieceValue(PIECE_TYPES[EncodedMove.getCapturedPiece(move) % PIECE_TYPES.length]) : 0;
+            final int promotion = EncodedMove.isPromotion(move) ?
+                    Evaluator.getPieceValue(PIECE_TYPES[EncodedMove.getPromotionPiece(move) % PIECE_TYPES.length]) : 0;
+            this.scores[i] = 16 * (victim + promotion) - EncodedMove.getMovedPieceType(move).ordinal();
+        }
+    }
+
+    private void scoreQuiets() {
+        for(int i = 0; i < this.numMoves; i++) {
+            this.scores[i] = this.history[HistoryTable.index(this.moves[i])];
+        }
+    }
+
+    //selection sort step, most nodes cut off long before the list would be sorted
+    private int pickBest() {
+        int best = this.index;
+        for(int i = this.index + 1; i < this.numMoves; i++) {
+            if(this.scores[i] > this.scores[best]) {
+                best = i;
+            }
+        }
+        final int move = this.moves[best];
+        this.moves[best] = this.moves[this.index];
+        this.moves[this.index] = move;
+        final int score = this.scores[best];
+        this.scores[best] = this.scores[this.index];
+        this.scores[this.index] = score;
+        this.index++;
+        return move;
+    }
+}
@@ -0,0 +1,10 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+//picks the move of a computer controlled player
+public interface MoveStrategy {
+
+    Move execute(Board board);
+}
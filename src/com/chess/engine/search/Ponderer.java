@@ -0,0 +1,78 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+
+import java.util.concurrent.CountDownLatch;
+
+//Thinks on the opponent's time. After the engine moved, the position after the reply it expects
+//is searched in the background. If the opponent plays that reply, the search goes on as the
+//engine's next search and has a head start; otherwise it is cancelled, and what it stored in
+//the transposition table still helps the search that follows.
+//Calls come from one thread, the game front end; the search itself runs on a daemon thread.
+public final class Ponderer {
+
+    private final AlphaBetaSearch search;
+    private Thread thread;
+    private Board position;
+    private volatile SearchResult result;
+
+    public Ponderer(final AlphaBetaSearch search) {
+        this.search = search;
+    }
+
+    //starts pondering on the position after the expected reply, the limits apply from the ponder hit on
+    public void start(final Board position, final SearchLimits limits) {
+        cancel();
+        this.position = position;
+        this.result = null;
+        final CountDownLatch started = new CountDownLatch(1);
+        this.thread = new Thread(() -> this.result = this.search.ponder(position, limits, started), "ponder");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        //until the search runs it would not hear a stop or ponder hit
+        try {
+            started.await();
+        } catch(final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //whether the background search is on the given position, i.e. the expected reply was played
+    public boolean isPonderingOn(final Board board) {
+        return this.thread != null && this.position.equals(board);
+    }
+
+    public boolean isPondering() {
+        return this.thread != null;
+    }
+
+    //The expected reply was played: the search continues under its limits and its result is
+    //returned once they are reached. Only valid while pondering on that position.
+    public SearchResult ponderHit() {
+        if(this.thread == null) {
+            throw new IllegalStateException("Not pondering!");
+        }
+        this.search.ponderHit();
+        join();
+        return this.result;
+    }
+
+    //stops pondering and waits for the search thread to end
+    public void cancel() {
+        if(this.thread == null) {
+            return;
+        }
+        this.search.stop();
+        join();
+    }
+
+    private void join() {
+        try {
+            this.thread.join();
+        } catch(final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.thread = null;
+        this.position = null;
+    }
+}
@@ -0,0 +1,80 @@
+package com.chess.engine.search;
+
+//When a search has to stop. The search always finishes depth 1, so there is a move to play
+//even with the smallest node or time budget.
+public final class SearchLimits {
+
+    public static final int MAX_DEPTH = 64;
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+
+    private SearchLimits(final Builder builder) {
+        this.depth = builder.depth;
+        this.nodes = builder.nodes;
+        this.timeMillis = builder.timeMillis;
+    }
+
+    public static SearchLimits depth(final int depth) {
+        return new Builder().setDepth(depth).build();
+    }
+
+    public static SearchLimits nodes(final long nodes) {
+        return new Builder().setNodes(nodes).build();
+    }
+
+    public static SearchLimits time(final long timeMillis) {
+        return new Builder().setTime(timeMillis).build();
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getTimeMillis() {
+        return this.timeMillis;
+    }
+
+    public boolean hasTimeLimit() {
+        return this.timeMillis != UNLIMITED;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + this.depth +
+                (this.nodes == UNLIMITED ? "" : " nodes " + this.nodes) +
+                (hasTimeLimit() ? " time " + this.timeMillis + " ms" : "");
+    }
+
+    public static class Builder {
+
+        private int depth = MAX_DEPTH;
+        private long nodes = UNLIMITED;
+        private long timeMillis = UNLIMITED;
+
+        public Builder setDepth(final int depth) {
+            this.depth = Math.max(1, Math.min(depth, MAX_DEPTH));
+            return this;
+        }
+
+        public Builder setNodes(final long nodes) {
+            this.nodes = nodes;
+            return this;
+        }
+
+        public Builder setTime(final long timeMillis) {
+            this.timeMillis = timeMillis;
+            return this;
+        }
+
+        public SearchLimits build() {
+            return new SearchLimits(this);
+        }
+    }
+}
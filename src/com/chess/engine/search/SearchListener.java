@@ -0,0 +1,7 @@
+package com.chess.engine.search;
+
+//notified after every completed iteration of iterative deepening
+public interface SearchListener {
+
+    void onIterationComplete(SearchResult result);
+}
@@ -0,0 +1,123 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.EncodedMove;
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import java.util.Arrays;
+import java.util.List;
+
+//Outcome of one iteration: the principal variation as encoded moves, decoded into
+//Board moves on request, with the score from the side to move's point of view.
+public final class SearchResult {
+
+    private final Board board;
+    private final int[] principalVariation;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+
+    SearchResult(final Board board,
+                 final int[] principalVariation,
+                 final int score,
+                 final int depth,
+                 final long nodes,
+                 final long timeMillis) {
+        this.board = board;
+        this.principalVariation = principalVariation;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    //Move.NULL_MOVE when the side to move has no legal move
+    public Move getBestMove() {
+        return Move.MoveFactory.createMove(this.board, getEncodedBestMove());
+    }
+
+    public int getEncodedBestMove() {
+        return this.principalVariation.length == 0 ? EncodedMove.NO_MOVE : this.principalVariation[0];
+    }
+
+    //every move is decoded on the board the previous one leads to
+    public List<Move> getPrincipalVariation() {
+        final ImmutableList.Builder<Move> moves = ImmutableList.builder();
+        Board currentBoard = this.board;
+        for(final int encodedMove : this.principalVariation) {
+            final Move move = Move.MoveFactory.createMove(currentBoard, encodedMove);
+            moves.add(move);
+            currentBoard = move.execute();
+        }
+        return moves.build();
+    }
+
+    public int[] getEncodedPrincipalVariation() {
+        return this.principalVariation.clone();
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public boolean isMateScore() {
+        return Math.abs(this.score) >= AlphaBetaSearch.MATE_SCORE - AlphaBetaSearch.MAX_PLY;
+    }
+
+    //moves until mate, negative when the side to move gets mated
+    public int getMateInMoves() {
+        final int plies = AlphaBetaSearch.MATE_SCORE - Math.abs(this.score);
+        return this.score > 0 ? (plies + 1) / 2 : -(plies / 2);
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getTimeMillis() {
+        return this.timeMillis;
+    }
+
+    public long getNodesPerSecond() {
+        return this.nodes * 1000 / Math.max(1, this.timeMillis);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("depth ").append(this.depth)
+                .append(isMateScore() ? " mate " + getMateInMoves() : " score " + this.score)
+                .append(" nodes ").append(this.nodes)
+                .append(" time ").append(this.timeMillis)
+                .append(" nps ").append(getNodesPerSecond())
+                .append(" pv");
+        for(final int move : this.principalVariation) {
+            builder.append(' ').append(EncodedMove.toString(move));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if(this == other) {
+            return true;
+        }
+        if(!(other instanceof SearchResult)) {
+            return false;
+        }
+        final SearchResult otherResult = (SearchResult) other;
+        return this.score == otherResult.score && this.depth == otherResult.depth &&
+                Arrays.equals(this.principalVariation, otherResult.principalVariation);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.principalVariation) + this.score;
+    }
+}
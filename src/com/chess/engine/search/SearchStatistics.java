@@ -0,0 +1,78 @@
+package com.chess.engine.search;
+
+//How often the selective parts of the search fired, to measure what each of them is worth.
+//Every search thread counts into its own instance, AlphaBetaSearch sums them up.
+public final class SearchStatistics {
+
+    private long nullMoveSearches;
+    private long nullMoveCutoffs;
+    private long lateMoveReductions;
+    private long lateMoveResearches;
+    private long futilityPrunes;
+
+    void countNullMoveSearch() {
+        this.nullMoveSearches++;
+    }
+
+    void countNullMoveCutoff() {
+        this.nullMoveCutoffs++;
+    }
+
+    void countLateMoveReduction() {
+        this.lateMoveReductions++;
+    }
+
+    void countLateMoveResearch() {
+        this.lateMoveResearches++;
+    }
+
+    void countFutilityPrune() {
+        this.futilityPrunes++;
+    }
+
+    void add(final SearchStatistics statistics) {
+        this.nullMoveSearches += statistics.nullMoveSearches;
+        this.nullMoveCutoffs += statistics.nullMoveCutoffs;
+        this.lateMoveReductions += statistics.lateMoveReductions;
+        this.lateMoveResearches += statistics.lateMoveResearches;
+        this.futilityPrunes += statistics.futilityPrunes;
+    }
+
+    void reset() {
+        this.nullMoveSearches = 0;
+        this.nullMoveCutoffs = 0;
+        this.lateMoveReductions = 0;
+        this.lateMoveResearches = 0;
+        this.futilityPrunes = 0;
+    }
+
+    public long getNullMoveSearches() {
+        return this.nullMoveSearches;
+    }
+
+    public long getNullMoveCutoffs() {
+        return this.nullMoveCutoffs;
+    }
+
+    //moves searched to a reduced depth first
+    public long getLateMoveReductions() {
+        return this.lateMoveReductions;
+    }
+
+    //reduced moves that beat alpha and had to be searched again at full depth
+    public long getLateMoveResearches() {
+        return this.lateMoveResearches;
+    }
+
+    //quiet moves skipped near the horizon because they could not reach alpha
+    public long getFutilityPrunes() {
+        return this.futilityPrunes;
+    }
+
+    @Override
+    public String toString() {
+        return "null move " + this.nullMoveCutoffs + "/" + this.nullMoveSearches +
+               " lmr " + this.lateMoveResearches + "/" + this.lateMoveReductions +
+               " futility " + this.futilityPrunes;
+    }
+}
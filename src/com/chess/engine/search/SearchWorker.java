@@ -0,0 +1,401 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.EncodedMove;
+import com.chess.engine.board.MoveGenerator;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.endgame.Bitbases;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Arrays;
+
+import static com.chess.engine.search.AlphaBetaSearch.DRAW_SCORE;
+import static com.chess.engine.search.AlphaBetaSearch.INFINITY;
+import static com.chess.engine.search.AlphaBetaSearch.MATE_SCORE;
+import static com.chess.engine.search.AlphaBetaSearch.MAX_PLY;
+
+//Search state of one thread: its own board, move buffers, principal variation and evaluator.
+//The transposition table of the owning AlphaBetaSearch is the only thing workers share.
+final class SearchWorker {
+
+    //limits are checked every 1024 nodes
+    private static final int CHECK_INTERVAL_MASK = 1023;
+    //helper threads skip some iterations so they spread over neighbouring depths,
+    //helper i uses entry (i - 1) % 20 of these tables
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    //null move: the remaining depth is cut by 2, or 3 from this depth on
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_DEEP_DEPTH = 7;
+    //late move reductions start with this move at this depth
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVES = 4;
+    //quiet moves with a history score beyond this are reduced one ply less or more
+    private static final int LMR_HISTORY_BONUS = HistoryTable.MAX_SCORE / 4;
+    //by remaining depth, how far below alpha the static evaluation may be before quiet moves are skipped
+    private static final int[] FUTILITY_MARGINS = {0, 150, 300, 500};
+    //by depth and move number
+    private static final int[][] REDUCTIONS = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+
+    static {
+        for(int depth = 1; depth < MAX_PLY; depth++) {
+            for(int moveNumber = 1; moveNumber < MoveGenerator.MAX_MOVES; moveNumber++) {
+                REDUCTIONS[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+    }
+
+    private final AlphaBetaSearch search;
+    private final TranspositionTable transpositionTable;
+    private final Evaluator evaluator;
+    private final StaticExchange staticExchange = new StaticExchange();
+    //0 is the main thread, it reports results and checks the limits
+    private final int id;
+
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+    //quiet moves searched so far at each ply, they lose history when a later one cuts off
+    private final int[][] quietsSearched = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    //move ordering memory, kept over the searches of a game
+    private final KillerTable killerTable = new KillerTable(MAX_PLY);
+    private final HistoryTable historyTable = new HistoryTable();
+    private final SearchStatistics statistics = new SearchStatistics();
+    //triangular table, row ply holds the best line found from that ply on
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    private SearchBoard board;
+    private long nodes;
+    //published every check interval so the main thread can sum up the node limit
+    private volatile long reportedNodes;
+    private int rootDepth;
+    private boolean stopped;
+    //switches of the owning search, copied for every search
+    private boolean nullMovePruning;
+    private boolean lateMoveReductions;
+    private boolean futilityPruning;
+    private Bitbases bitbases;
+
+    SearchWorker(final AlphaBetaSearch search, final TranspositionTable transpositionTable, final int id) {
+        this.search = search;
+        this.transpositionTable = transpositionTable;
+        this.evaluator = new Evaluator();
+        this.id = id;
+        for(int i = 0; i < MAX_PLY; i++) {
+            this.movePickers[i] = new MovePicker();
+        }
+    }
+
+    //iterative deepening of the main thread, every completed iteration becomes a result
+    SearchResult searchMain(final Board root, final SearchLimits limits) {
+        prepare(root);
+        SearchResult result = null;
+        for(this.rootDepth = 1; this.rootDepth <= limits.getDepth(); this.rootDepth++) {
+            this.historyTable.age();
+            final int score = negamax(this.rootDepth, -INFINITY, INFINITY, 0);
+            if(this.stopped) {
+                break;
+            }
+            this.reportedNodes = this.nodes;
+            result = this.search.iterationComplete(root, Arrays.copyOf(this.pvTable[0], this.pvLength[0]),
+                    score, this.rootDepth);
+            //a found mate can not get any shorter, and the next iteration would not finish in time
+            if(Math.abs(score) >= MATE_SCORE - this.rootDepth || !this.search.hasTimeForIteration()) {
+                break;
+            }
+        }
+        this.reportedNodes = this.nodes;
+        return result;
+    }
+
+    //helpers only fill the transposition table, until the main thread is done
+    void searchHelper(final Board root, final SearchLimits limits) {
+        prepare(root);
+        final int skip = (this.id - 1) % SKIP_SIZE.length;
+        for(this.rootDepth = 1; this.rootDepth <= limits.getDepth(); this.rootDepth++) {
+            if(((this.rootDepth + SKIP_PHASE[skip]) / SKIP_SIZE[skip]) % 2 != 0) {
+                continue;
+            }
+            this.historyTable.age();
+            negamax(this.rootDepth, -INFINITY, INFINITY, 0);
+            if(this.stopped) {
+                break;
+            }
+        }
+        this.reportedNodes = this.nodes;
+    }
+
+    SearchStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    long getReportedNodes() {
+        return this.reportedNodes;
+    }
+
+    private void prepare(final Board root) {
+        this.board = new SearchBoard(root);
+        for(final long zobristKey : this.search.getGameHistory()) {
+            this.board.addGameHistory(zobristKey);
+        }
+        this.nodes = 0;
+        this.reportedNodes = 0;
+        this.stopped = false;
+        this.killerTable.newSearch();
+        this.statistics.reset();
+        this.nullMovePruning = this.search.isNullMovePruning();
+        this.lateMoveReductions = this.search.isLateMoveReductions();
+        this.futilityPruning = this.search.isFutilityPruning();
+        this.bitbases = this.search.getBitbases();
+        this.evaluator.setBitbases(this.bitbases);
+    }
+
+    //forgets the move ordering memory, for a new game
+    void clear() {
+        this.killerTable.clear();
+        this.historyTable.clear();
+    }
+
+    private int negamax(final int depth, int alpha, final int beta, final int ply) {
+        if(depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        if(enterNode(ply)) {
+            return 0;
+        }
+        if(ply > 0 && this.board.isRepetition()) {
+            return DRAW_SCORE;
+        }
+        //a known draw needs no search, known wins still search on towards the mate
+        if(ply > 0 && this.bitbases != null && this.bitbases.probe(this.board) == Bitbases.DRAW) {
+            return DRAW_SCORE;
+        }
+        if(ply == MAX_PLY - 1) {
+            return this.evaluator.evaluate(this.board);
+        }
+
+        final long zobristKey = this.board.getZobristKey();
+        final long entry = this.transpositionTable.probe(zobristKey);
+        final int hashMove = entry == TranspositionTable.NO_ENTRY ? EncodedMove.NO_MOVE : TranspositionTable.getMove(entry);
+        //a window wider than one point means the exact score matters, no guessing there
+        final boolean pvNode = beta - alpha > 1;
+        //PV nodes, the root among them, always search, so the principal variation reaches its full
+        //length even when a helper thread already stored the position
+        if(!pvNode && entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) >= depth) {
+            final int hashScore = TranspositionTable.scoreFromTable(TranspositionTable.getScore(entry), ply);
+            final int bound = TranspositionTable.getBound(entry);
+            if(bound == TranspositionTable.BOUND_EXACT ||
+               (bound == TranspositionTable.BOUND_LOWER && hashScore >= beta) ||
+               (bound == TranspositionTable.BOUND_UPPER && hashScore <= alpha)) {
+                return hashScore;
+            }
+        }
+
+        final Color color = this.board.getMoveMaker();
+        final boolean inCheck = this.board.isInCheck();
+        final boolean selective = ply > 0 && !pvNode && !inCheck;
+        final int staticEvaluation = selective ? this.evaluator.evaluate(this.board) : -INFINITY;
+
+        //Passing the turn and still failing high shows the position is good enough to cut off.
+        //Not twice in a row, and not with only pawns left, where passing would be a zugzwang escape.
+        if(this.nullMovePruning && selective && depth >= NULL_MOVE_MIN_DEPTH && staticEvaluation >= beta &&
+           this.board.getLastMove() != EncodedMove.NO_MOVE && hasPieces(color)) {
+            final int reduction = depth >= NULL_MOVE_DEEP_DEPTH ? 3 : 2;
+            this.statistics.countNullMoveSearch();
+            this.board.makeNullMove();
+            final int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1);
+            this.board.unmakeNullMove();
+            if(this.stopped) {
+                return 0;
+            }
+            if(score >= beta) {
+                this.statistics.countNullMoveCutoff();
+                //a mate found without moving is no proof of a mate
+                return score >= MATE_SCORE - MAX_PLY ? beta : score;
+            }
+        }
+        //near the horizon quiet moves can not make up for a static evaluation far below alpha
+        final boolean futile = this.futilityPruning && selective && depth < FUTILITY_MARGINS.length &&
+                Math.abs(alpha) < MATE_SCORE - MAX_PLY && staticEvaluation + FUTILITY_MARGINS[depth] <= alpha;
+
+        final MovePicker movePicker = this.movePickers[ply];
+        movePicker.init(this.board, hashMove, this.killerTable.getFirst(ply), this.killerTable.getSecond(ply),
+                this.historyTable.getScores(color));
+
+        final int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = EncodedMove.NO_MOVE;
+        int numMoves = 0;
+        int numQuiets = 0;
+        for(int move = movePicker.next(); move != EncodedMove.NO_MOVE; move = movePicker.next()) {
+            numMoves++;
+            final boolean quiet = !EncodedMove.isCapture(move) && !EncodedMove.isPromotion(move);
+            final int history = quiet ? this.historyTable.get(color, move) : 0;
+            this.board.makeMove(move);
+            final boolean givesCheck = this.board.isInCheck();
+            final boolean tactical = !quiet || inCheck || givesCheck;
+            if(futile && numMoves > 1 && !tactical) {
+                this.board.unmakeMove();
+                this.statistics.countFutilityPrune();
+                continue;
+            }
+            //The first move is searched with the full window. The others only have to prove they are
+            //no better than alpha, late quiet ones at a reduced depth first. Beating alpha means
+            //searching again, at full depth and then with the full window.
+            int score;
+            if(numMoves == 1) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                int reduction = 0;
+                if(this.lateMoveReductions && depth >= LMR_MIN_DEPTH && numMoves >= LMR_MIN_MOVES && !tactical) {
+                    reduction = REDUCTIONS[depth][Math.min(numMoves, MoveGenerator.MAX_MOVES - 1)];
+                    if(history > LMR_HISTORY_BONUS) {
+                        reduction--;
+                    } else if(history < -LMR_HISTORY_BONUS) {
+                        reduction++;
+                    }
+                    if(pvNode) {
+                        reduction--;
+                    }
+                    reduction = Math.max(0, Math.min(reduction, depth - 2));
+                }
+                if(reduction > 0) {
+                    this.statistics.countLateMoveReduction();
+                }
+                score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+                if(score > alpha && reduction > 0) {
+                    this.statistics.countLateMoveResearch();
+                    score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                }
+                if(score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            this.board.unmakeMove();
+            if(this.stopped) {
+                return 0;
+            }
+            if(score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if(score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if(alpha >= beta) {
+                        if(quiet) {
+                            updateQuietCutoff(move, depth, ply, numQuiets);
+                        }
+                        break;
+                    }
+                }
+            }
+            if(quiet) {
+                this.quietsSearched[ply][numQuiets++] = move;
+            }
+        }
+        if(numMoves == 0) {
+            //mates closer to the root score higher
+            return inCheck ? -MATE_SCORE + ply : DRAW_SCORE;
+        }
+        final int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER :
+                bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        //a fail low has no best move worth remembering
+        this.transpositionTable.store(zobristKey,
+                bound == TranspositionTable.BOUND_UPPER ? EncodedMove.NO_MOVE : bestMove,
+                TranspositionTable.scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    //Resolves captures below the horizon so no leaf is evaluated in the middle of an exchange.
+    //The side to move may stand pat on the static evaluation, captures that lose material by
+    //static exchange are skipped without being made. In check every evasion is searched.
+    private int quiescence(int alpha, final int beta, final int ply) {
+        if(enterNode(ply)) {
+            return 0;
+        }
+        if(this.board.isRepetition()) {
+            return DRAW_SCORE;
+        }
+        if(ply == MAX_PLY - 1) {
+            return this.evaluator.evaluate(this.board);
+        }
+
+        final MovePicker movePicker = this.movePickers[ply];
+        final boolean inCheck = this.board.isInCheck();
+        int bestScore;
+        if(inCheck) {
+            bestScore = -INFINITY;
+            movePicker.init(this.board, EncodedMove.NO_MOVE, EncodedMove.NO_MOVE, EncodedMove.NO_MOVE,
+                    this.historyTable.getScores(this.board.getMoveMaker()));
+        } else {
+            bestScore = this.evaluator.evaluate(this.board);
+            if(bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+            movePicker.initCaptures(this.board);
+        }
+
+        for(int move = movePicker.next(); move != EncodedMove.NO_MOVE; move = movePicker.next()) {
+            if(!inCheck && !EncodedMove.isPromotion(move) && this.staticExchange.evaluate(this.board, move) < 0) {
+                continue;
+            }
+            this.board.makeMove(move);
+            final int score = -quiescence(-beta, -alpha, ply + 1);
+            this.board.unmakeMove();
+            if(this.stopped) {
+                return 0;
+            }
+            if(score > bestScore) {
+                bestScore = score;
+                if(score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if(alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        //in check every move was searched, none means mate
+        return bestScore == -INFINITY ? -MATE_SCORE + ply : bestScore;
+    }
+
+    //anything but pawns and the king
+    private boolean hasPieces(final Color color) {
+        return (this.board.getOccupancy(color) & ~this.board.getPieceBitBoard(PieceType.PAWN, color) &
+                ~this.board.getPieceBitBoard(PieceType.KING, color)) != 0;
+    }
+
+    //counts the node and checks the limits now and then, true once the search has to stop
+    private boolean enterNode(final int ply) {
+        this.pvLength[ply] = ply;
+        this.nodes++;
+        if((this.nodes & CHECK_INTERVAL_MASK) == 0) {
+            this.reportedNodes = this.nodes;
+            //depth 1 of the main thread always completes so there is a move to return
+            this.stopped = this.id == 0 ? this.rootDepth > 1 && this.search.isLimitReached() : this.search.isHelperStopped();
+        }
+        return this.stopped;
+    }
+
+    //the move becomes the first killer of the ply and gains history, the quiet moves tried
+    //before it lose some
+    private void updateQuietCutoff(final int move, final int depth, final int ply, final int numQuiets) {
+        this.killerTable.update(ply, move);
+        final Color color = this.board.getMoveMaker();
+        this.historyTable.reward(color, move, depth);
+        for(int i = 0; i < numQuiets; i++) {
+            this.historyTable.penalize(color, this.quietsSearched[ply][i], depth);
+        }
+    }
+
+    private void updatePv(final int ply, final int move) {
+        final int[] pv = this.pvTable[ply];
+        pv[ply] = move;
+        final int childLength = this.pvLength[ply + 1];
+        System.arraycopy(this.pvTable[ply + 1], ply + 1, pv, ply + 1, childLength - ply - 1);
+        this.pvLength[ply] = childLength;
+    }
+}
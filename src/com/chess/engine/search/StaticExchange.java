@@ -0,0 +1,104 @@
+package com.chess.engine.search;
+
+import com.chess.engine.Color;
+import com.chess.engine.board.BitBoards;
+import com.chess.engine.board.BoardValues;
+import com.chess.engine.board.EncodedMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pieces.Piece.PieceType;
+
+//Static exchange evaluation: the material a capture wins once both sides have recaptured on its
+//tile with their least valuable pieces for as long as it pays off. Nothing is made on the board,
+//the exchange is played out on an occupancy bitboard, so sliders behind the pieces that already
+//captured join in. Pins and promotions during the exchange are ignored.
+//Keeps its swap list between calls, so every search thread needs its own instance.
+public final class StaticExchange {
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    //only ever captured last, so it just has to outweigh everything else
+    private static final int KING_VALUE = 20000;
+    //no exchange on one tile has more captures than there are pieces
+    private static final int MAX_EXCHANGE = 32;
+
+    //gain of the side to capture after each capture of the exchange
+    private final int[] gains = new int[MAX_EXCHANGE];
+
+    //material won by the side making the move, negative if the exchange loses material
+    public int evaluate(final SearchBoard board, final int move) {
+        final int currentCoordinate = EncodedMove.getCurrentCoordinate(move);
+        final int destinationCoordinate = EncodedMove.getDestinationCoordinate(move);
+        final int[] gains = this.gains;
+
+        long occupancy = board.getOccupancy() & ~BitBoards.squareMask(currentCoordinate);
+        gains[0] = EncodedMove.isCapture(move) ? pieceValue(EncodedMove.getCapturedPiece(move)) : 0;
+        int pieceOnTile = EncodedMove.getMovedPiece(move);
+        if(EncodedMove.isPromotion(move)) {
+            pieceOnTile = EncodedMove.getPromotionPiece(move);
+            gains[0] += pieceValue(pieceOnTile) - Evaluator.getPieceValue(PieceType.PAWN);
+        }
+        if(EncodedMove.isEnPassant(move)) {
+            //the captured pawn stands behind the destination tile
+            occupancy &= ~BitBoards.squareMask(destinationCoordinate -
+                    board.getMoveMaker().getDirection() * BoardValues.NUM_TILES_PER_ROW);
+        }
+
+        Color side = board.getMoveMaker().isWhite() ? Color.BLACK : Color.WHITE;
+        long attackers = attackers(board, destinationCoordinate, occupancy);
+        int depth = 0;
+        while(true) {
+            final long sideAttackers = attackers & board.getOccupancy(side);
+            if(sideAttackers == 0) {
+                break;
+            }
+            final int attacker = leastValuableAttacker(board, sideAttackers, side);
+            final int attackerCoordinate = Long.numberOfTrailingZeros(
+                    sideAttackers & board.getPieceBitBoard(PIECE_TYPES[attacker], side));
+            final long remaining = occupancy & ~BitBoards.squareMask(attackerCoordinate);
+            final long remainingAttackers = attackers(board, destinationCoordinate, remaining);
+            //the king can only capture onto a tile the other side no longer covers
+            if(PIECE_TYPES[attacker] == PieceType.KING &&
+                (remainingAttackers & board.getOccupancy(side.isWhite() ? Color.BLACK : Color.WHITE)) != 0) {
+                break;
+            }
+            depth++;
+            gains[depth] = pieceValue(pieceOnTile) - gains[depth - 1];
+            //this capture happens, but it loses even if nothing recaptures, so the rest of the
+            //exchange can not change the result
+            if(Math.max(-gains[depth - 1], gains[depth]) < 0) {
+                break;
+            }
+            pieceOnTile = attacker;
+            occupancy = remaining;
+            attackers = remainingAttackers;
+            side = side.isWhite() ? Color.BLACK : Color.WHITE;
+        }
+        //every side may stop capturing when going on would lose more
+        while(depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
+        }
+        return gains[0];
+    }
+
+    //pieces of both colors still on the board that attack the tile
+    private static long attackers(final SearchBoard board, final int coordinate, final long occupancy) {
+        return (board.attackersTo(coordinate, Color.WHITE, occupancy) |
+                board.attackersTo(coordinate, Color.BLACK, occupancy)) & occupancy;
+    }
+
+    //piece type ordinal of the cheapest attacker, pieces are ordered by value
+    private static int leastValuableAttacker(final SearchBoard board, final long attackers, final Color side) {
+        for(int i = 0; i < PIECE_TYPES.length; i++) {
+            if((attackers & board.getPieceBitBoard(PIECE_TYPES[i], side)) != 0) {
+                return i;
+            }
+        }
+        throw new RuntimeException("No attacker!");
+    }
+
+    //piece index or type ordinal, both map onto the same type
+    private static int pieceValue(final int piece) {
+        final PieceType pieceType = PIECE_TYPES[piece % PIECE_TYPES.length];
+        return pieceType == PieceType.KING ? KING_VALUE : Evaluator.getPieceValue(pieceType);
+    }
+}
@@ -0,0 +1,30 @@
+package com.chess.engine.search;
+
+//Splits the time left on the clock over the moves still to play. The result is a hard limit:
+//the search finishes the iteration it is in when half of it is used up, so the time actually
+//spent on a move is mostly well below it.
+public final class TimeManager {
+
+    //moves assumed to be left when the time control does not say
+    public static final int DEFAULT_MOVES_TO_GO = 30;
+    //kept back from every move for the protocol and the operating system
+    public static final long MOVE_OVERHEAD_MILLIS = 30;
+
+    private TimeManager() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    //time for the next move, movesToGo is 0 for sudden death
+    public static long allocate(final long remainingMillis, final long incrementMillis, final int movesToGo) {
+        final long available = Math.max(1, remainingMillis - MOVE_OVERHEAD_MILLIS);
+        final int moves = movesToGo > 0 ? Math.min(movesToGo, DEFAULT_MOVES_TO_GO) : DEFAULT_MOVES_TO_GO;
+        final long allocation = available / moves + incrementMillis * 3 / 4;
+        //the last move before the time control may use everything, any other move half of it at most
+        return Math.max(1, Math.min(allocation, movesToGo == 1 ? available : available / 2));
+    }
+
+    //time for a fixed move time
+    public static long allocate(final long moveTimeMillis) {
+        return Math.max(1, moveTimeMillis - MOVE_OVERHEAD_MILLIS);
+    }
+}
@@ -0,0 +1,186 @@
+package com.chess.engine.search;
+
+import com.chess.engine.board.EncodedMove;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+//Fixed size table of search results shared by all search threads without locks.
+//Everything lives in one long[]: an entry is the zobrist key XORed with the packed data,
+//followed by the data itself. A reader recomputes the key from both words, so an entry
+//half written by another thread fails the check and is treated as a miss.
+//Four entries form a bucket of one cache line, the one to replace is picked by depth and age.
+//Packed data, 0 is never valid because the bound is never 0:
+//  bits  0-26 best move (EncodedMove)   bits 43-50 depth (signed)
+//  bits 27-42 score (signed)            bits 51-52 bound
+//                                       bits 53-60 age of the search that stored it
+public final class TranspositionTable {
+
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+    public static final long NO_ENTRY = 0L;
+
+    private static final int MOVE_BITS = 27;
+    private static final int SCORE_SHIFT = 27;
+    private static final int DEPTH_SHIFT = 43;
+    private static final int BOUND_SHIFT = 51;
+    private static final int AGE_SHIFT = 53;
+    private static final long MOVE_MASK = (1L << MOVE_BITS) - 1;
+    private static final int AGE_MASK = 0xFF;
+
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int ENTRIES_PER_BUCKET = 4;
+    private static final int LONGS_PER_BUCKET = LONGS_PER_ENTRY * ENTRIES_PER_BUCKET;
+    private static final int BYTES_PER_BUCKET = LONGS_PER_BUCKET * Long.BYTES;
+    //an entry this many searches old is worth as little as one this many plies shallower
+    private static final int AGE_WEIGHT = 8;
+
+    //opaque access keeps every long read and write atomic for the racing threads
+    private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] entries;
+    private final int bucketMask;
+    private int age;
+
+    public TranspositionTable(final int sizeInMegaBytes) {
+        //power of two number of buckets so the index is a mask of the key
+        final long requestedBuckets = Math.max(1L, (long) sizeInMegaBytes * 1024 * 1024 / BYTES_PER_BUCKET);
+        final int numBuckets = Integer.highestOneBit((int) Math.min(requestedBuckets, 1 << 26));
+        this.entries = new long[numBuckets * LONGS_PER_BUCKET];
+        this.bucketMask = numBuckets - 1;
+    }
+
+    //called once per search, entries of earlier searches become the first to be replaced
+    public void newSearch() {
+        this.age = (this.age + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        for(int i = 0; i < this.entries.length; i++) {
+            ENTRIES.setOpaque(this.entries, i, 0L);
+        }
+        this.age = 0;
+    }
+
+    //packed data of the entry, NO_ENTRY on a miss
+    public long probe(final long zobristKey) {
+        final int bucket = bucketIndex(zobristKey);
+        for(int i = bucket; i < bucket + LONGS_PER_BUCKET; i += LONGS_PER_ENTRY) {
+            final long data = (long) ENTRIES.getOpaque(this.entries, i + 1);
+            if(data != NO_ENTRY && ((long) ENTRIES.getOpaque(this.entries, i) ^ data) == zobristKey) {
+                return data;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    //scores are stored as seen from the node, see scoreToTable
+    public void store(final long zobristKey,
+                      final int move,
+                      final int score,
+                      final int depth,
+                      final int bound) {
+        final int bucket = bucketIndex(zobristKey);
+        int replace = bucket;
+        int replaceValue = Integer.MAX_VALUE;
+        for(int i = bucket; i < bucket + LONGS_PER_BUCKET; i += LONGS_PER_ENTRY) {
+            final long data = (long) ENTRIES.getOpaque(this.entries, i + 1);
+            if(data == NO_ENTRY) {
+                if(replaceValue > Integer.MIN_VALUE) {
+                    replace = i;
+                    replaceValue = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if(((long) ENTRIES.getOpaque(this.entries, i) ^ data) == zobristKey) {
+                //same position: keep a deeper result of this search unless the new one is exact
+                if(bound != BOUND_EXACT && getAge(data) == this.age && getDepth(data) > depth + 2) {
+                    return;
+                }
+                //a bound without a move should not lose the move found earlier
+                write(i, zobristKey, move == EncodedMove.NO_MOVE ? getMove(data) : move, score, depth, bound);
+                return;
+            }
+            final int value = getDepth(data) - AGE_WEIGHT * ((this.age - getAge(data)) & AGE_MASK);
+            if(value < replaceValue) {
+                replace = i;
+                replaceValue = value;
+            }
+        }
+        write(replace, zobristKey, move, score, depth, bound);
+    }
+
+    //permill of the sampled entries written by the current search, as reported by uci
+    public int hashFull() {
+        final int sampledEntries = Math.min(1000, this.entries.length / LONGS_PER_ENTRY);
+        int used = 0;
+        for(int i = 0; i < sampledEntries * LONGS_PER_ENTRY; i += LONGS_PER_ENTRY) {
+            final long data = (long) ENTRIES.getOpaque(this.entries, i + 1);
+            if(data != NO_ENTRY && getAge(data) == this.age) {
+                used++;
+            }
+        }
+        return used * 1000 / sampledEntries;
+    }
+
+    public static int getMove(final long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    public static int getScore(final long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    public static int getDepth(final long data) {
+        return (byte) (data >>> DEPTH_SHIFT);
+    }
+
+    public static int getBound(final long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int getAge(final long data) {
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    }
+
+    //mate scores count plies from the root, the table keeps them relative to the node instead
+    public static int scoreToTable(final int score, final int ply) {
+        if(score >= AlphaBetaSearch.MATE_SCORE - AlphaBetaSearch.MAX_PLY) {
+            return score + ply;
+        }
+        if(score <= -AlphaBetaSearch.MATE_SCORE + AlphaBetaSearch.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    public static int scoreFromTable(final int score, final int ply) {
+        if(score >= AlphaBetaSearch.MATE_SCORE - AlphaBetaSearch.MAX_PLY) {
+            return score - ply;
+        }
+        if(score <= -AlphaBetaSearch.MATE_SCORE + AlphaBetaSearch.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private void write(final int index,
+                       final long zobristKey,
+                       final int move,
+                       final int score,
+                       final int depth,
+                       final int bound) {
+        final long data = (move & MOVE_MASK) |
+                (score & 0xFFFFL) << SCORE_SHIFT |
+                (depth & 0xFFL) << DEPTH_SHIFT |
+                (long) bound << BOUND_SHIFT |
+                (long) this.age << AGE_SHIFT;
+        ENTRIES.setOpaque(this.entries, index, zobristKey ^ data);
+        ENTRIES.setOpaque(this.entries, index + 1, data);
+    }
+
+    private int bucketIndex(final long zobristKey) {
+        return ((int) zobristKey & this.bucketMask) * LONGS_PER_BUCKET;
+    }
+}
@@ -13,10 +13,8 @@ import java.util.Collection;
 import java.util.List;
 
 public class BlackPlayer extends Player {
-    public BlackPlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+    public BlackPlayer(final Board board) {
+        super(board);
     }
 
     public Collection<Piece> getActivePieces() {
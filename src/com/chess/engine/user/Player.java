@@ -17,16 +17,12 @@ public abstract class Player {
 
     protected final Board board;
     protected final King playerKing;
-    protected final Collection<Move>legalMoves;
-    private final boolean isInCheck;
+    //computed on first request and memoized, most boards never need it
+    private volatile Collection<Move> legalMoves;
 
-    Player(final Board board,
-           final Collection<Move> legalMoves,
-           final Collection<Move> opponentMoves){
+    Player(final Board board){
         this.board = board;
         this.playerKing = establishKing();
-        this.legalMoves = ImmutableList.copyOf(legalMoves);
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
     }
 
     public King getPlayerKing(){
@@ -34,18 +30,15 @@ public abstract class Player {
     }
 
     public Collection<Move> getLegalMoves(){
-        return this.legalMoves;
-    }
-
-    //Pass in King position and pass int all enemy moves and see if its inCheck()
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for(final Move move : moves){
-            if(piecePosition == move.getDestinationCoordinate()){
-                attackMoves.add(move);
-            }
+        Collection<Move> legalMoves = this.legalMoves;
+        if(legalMoves == null){
+            //only the player to move gets strictly legal moves, the other side keeps its piece moves
+            legalMoves = this.board.currentPlayer() == this ?
+                    this.board.calculateStrictlyLegalMoves() :
+                    this.board.calculateLegalMoves(getActivePieces());
+            this.legalMoves = legalMoves;
         }
-        return ImmutableList.copyOf(attackMoves);
+        return legalMoves;
     }
 
     //see if king piece is on the table
@@ -59,32 +52,26 @@ public abstract class Player {
     }
 
     public boolean isMoveLegal(final Move move){
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
 
     //rules of the game
     public boolean isInCheck(){
-        return this.isInCheck;
+        return this.board.isSquareAttacked(this.playerKing.getPiecePosition(), getOpponent().getColor());
     }
 
     public boolean isInCheckMate(){
-        return this.isInCheck && !hasEscapeMoves();
+        return isInCheck() && !hasEscapeMoves();
     }
 
     public boolean isInStaleMate(){
-        return !this.isInCheck && !hasEscapeMoves();
+        return !isInCheck() && !hasEscapeMoves();
     }
 
-    //in order to calculate EscapeMoves we need to make those moves on an imaginary board
+    //legal moves are strictly legal, so any move at all is an escape
     private boolean hasEscapeMoves() {
-        for(final Move move : this.legalMoves) {
-            final MoveTransition transition = makeMove(move);
-            if(transition.getMoveStatus().isDone()){
-                return true;
-            }
-        }
-        return false;
+        return !getLegalMoves().isEmpty();
     }
 
     //TODO
@@ -99,21 +86,15 @@ public abstract class Player {
 
         //if the moves illegal returns the same board
         if(!isMoveLegal(move)) {
-            return new MoveTransition(this.board, move, MoveStatus.ILLEGAL_MOVE);
+            //a piece move missing from the legal moves would have exposed the king
+            final boolean isPieceMove = move.getMovedPiece() != null &&
+                    move.getMovedPiece().calculateLegalMoves(this.board).contains(move);
+            return new MoveTransition(this.board, move,
+                    isPieceMove ? MoveStatus.LEAVES_PLAYER_IN_CHECK : MoveStatus.ILLEGAL_MOVE);
         }
 
-        //make an imaginary board if we white the current player will be black because we want to inspect
-        //the possible moves on the king
+        //legal moves never leave the king in check, so the new board needs no further test
         final Board transitionBoard = move.execute();
-
-        //invoke calculateAttacksOnTile and we pass in the location of the king and we get the
-        // current player legal moves and see if they can attack the king
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.currentPlayer()
-                        .getOpponent().getPlayerKing().getPiecePosition(),
-                transitionBoard.currentPlayer().getLegalMoves());
-        if(!kingAttacks.isEmpty()){
-            return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
-        }
         return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
     }
 
@@ -13,10 +13,8 @@ import java.util.Collection;
 import java.util.List;
 
 public class WhitePlayer extends Player {
-    public WhitePlayer(final Board board,
-                       final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+    public WhitePlayer(final Board board) {
+        super(board);
     }
     public Collection<Piece> getActivePieces(){
      return this.board.getWhitePieces();
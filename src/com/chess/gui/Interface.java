@@ -4,7 +4,12 @@ import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardValues;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
+import com.chess.engine.book.OpeningBook;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.search.AlphaBetaSearch;
+import com.chess.engine.search.Ponderer;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.SearchResult;
 import com.chess.engine.user.MoveTransition;
 
 import javax.imageio.ImageIO;
@@ -19,6 +24,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
 
 import static javax.swing.SwingUtilities.isLeftMouseButton;
 import static javax.swing.SwingUtilities.isRightMouseButton;
@@ -37,10 +44,24 @@ public class Interface {
     private Tile destinationTile;
     private Piece playerMovedPiece;
 
+    //computer controlled sides, the computer moves whenever it is their turn
+    private boolean whiteComputer;
+    private boolean blackComputer;
+    private boolean computerThinking;
+    //one search for the whole game, so its transposition table stays warm between moves
+    private final AlphaBetaSearch computerStrategy = new AlphaBetaSearch(COMPUTER_SEARCH_LIMITS);
+    //thinks on the player's time about the reply the computer expects
+    private final Ponderer ponderer = new Ponderer(computerStrategy);
+    private boolean ponderEnabled;
+    //the computer plays from the book as long as it knows the position
+    private OpeningBook openingBook;
+    private final Random bookRandom = new Random();
+
     private final static Dimension OUTER_FRAME_DIMENSION = new Dimension(600,600);
     private final static Dimension BOARD_PANEL_DIMENSION = new Dimension(400,350);
     private final static Dimension TILE_PANEL_DIMENSION = new Dimension(10,10);
     private static String defaultIconPath = "icons/";
+    private final static SearchLimits COMPUTER_SEARCH_LIMITS = SearchLimits.time(2000);
 
     public Interface() {
         this.gameFrame = new JFrame("JChess");
@@ -57,6 +78,7 @@ public class Interface {
     private JMenuBar createTableMenuBar() {
         final JMenuBar tableMenuBar = new JMenuBar();
         tableMenuBar.add(createFileMenu());
+        tableMenuBar.add(createGameMenu());
         return tableMenuBar;
     }
 
@@ -73,6 +95,24 @@ public class Interface {
 
         fileMenu.add(openNewGame);
 
+        final JMenuItem openBookItem = new JMenuItem("Load Opening Book");
+        openBookItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                final JFileChooser chooser = new JFileChooser();
+                if(chooser.showOpenDialog(gameFrame) != JFileChooser.APPROVE_OPTION) {
+                    return;
+                }
+                try {
+                    openingBook = OpeningBook.open(chooser.getSelectedFile().toPath());
+                } catch (IOException ex) {
+                    JOptionPane.showMessageDialog(gameFrame, "Can not open the book: " + ex.getMessage(),
+                            "JChess", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        });
+        fileMenu.add(openBookItem);
+
         final JMenuItem exitMenuItem = new JMenuItem("Exit");
         exitMenuItem.addActionListener(new ActionListener() {
             @Override
@@ -85,6 +125,129 @@ public class Interface {
         return fileMenu;
     }
 
+    private JMenu createGameMenu(){
+        final JMenu gameMenu = new JMenu("Game");
+
+        final JCheckBoxMenuItem whiteComputerItem = new JCheckBoxMenuItem("Computer Plays White");
+        whiteComputerItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                whiteComputer = whiteComputerItem.isSelected();
+                cancelPonderIfIdle();
+                moveComputerIfNeeded();
+            }
+        });
+        gameMenu.add(whiteComputerItem);
+
+        final JCheckBoxMenuItem blackComputerItem = new JCheckBoxMenuItem("Computer Plays Black");
+        blackComputerItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                blackComputer = blackComputerItem.isSelected();
+                cancelPonderIfIdle();
+                moveComputerIfNeeded();
+            }
+        });
+        gameMenu.add(blackComputerItem);
+
+        final JCheckBoxMenuItem ponderItem = new JCheckBoxMenuItem("Ponder");
+        ponderItem.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                ponderEnabled = ponderItem.isSelected();
+                cancelPonderIfIdle();
+            }
+        });
+        gameMenu.add(ponderItem);
+
+        return gameMenu;
+    }
+
+    private boolean isComputerTurn(){
+        return chessBoard.currentPlayer().getColor().isWhite() ? whiteComputer : blackComputer;
+    }
+
+    private boolean isGameOver(){
+        return chessBoard.currentPlayer().isInCheckMate() || chessBoard.currentPlayer().isInStaleMate();
+    }
+
+    //starts the search in the background so the GUI stays responsive while the computer thinks
+    private void moveComputerIfNeeded(){
+        if(!computerThinking && isComputerTurn() && !isGameOver()){
+            computerThinking = true;
+            new ComputerMove(chessBoard).execute();
+        }
+    }
+
+    //the ponderer is only touched by one ComputerMove at a time, or here while none runs
+    private void cancelPonderIfIdle(){
+        if(!computerThinking && (!ponderEnabled || !(whiteComputer || blackComputer))){
+            ponderer.cancel();
+        }
+    }
+
+    //after the computer moved, thinks about the position after the reply it expects
+    private void ponderIfEnabled(final SearchResult result){
+        final List<Move> principalVariation = result.getPrincipalVariation();
+        if(ponderEnabled && !isComputerTurn() && !isGameOver() && principalVariation.size() >= 2){
+            ponderer.start(principalVariation.get(1).execute(), COMPUTER_SEARCH_LIMITS);
+        }
+    }
+
+    private class ComputerMove extends SwingWorker<Move, Void>{
+
+        private final Board board;
+        private final OpeningBook book;
+        //null when the move came from the book
+        private SearchResult result;
+
+        ComputerMove(final Board board) {
+            this.board = board;
+            this.book = openingBook;
+        }
+
+        @Override
+        protected Move doInBackground() {
+            if(this.book != null) {
+                final Move bookMove = this.book.pickMove(this.board, bookRandom);
+                if(bookMove != Move.NULL_MOVE) {
+                    ponderer.cancel();
+                    return bookMove;
+                }
+            }
+            this.result = search();
+            return this.result.getBestMove();
+        }
+
+        private SearchResult search() {
+            //the player made the expected reply, the pondering search already is on this position
+            if(ponderer.isPonderingOn(this.board)) {
+                return ponderer.ponderHit();
+            }
+            ponderer.cancel();
+            return computerStrategy.search(this.board);
+        }
+
+        @Override
+        protected void done() {
+            computerThinking = false;
+            try {
+                final MoveTransition transition = this.board.currentPlayer().makeMove(get());
+                if (transition.getMoveStatus().isDone() && chessBoard == this.board) {
+                    chessBoard = transition.getTransitionBoard();
+                    boardPanel.drawBoard(chessBoard);
+                    if(this.result != null) {
+                        ponderIfEnabled(this.result);
+                    }
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+            //the other side may be a computer as well
+            moveComputerIfNeeded();
+        }
+    }
+
     private class BoardPanel extends JPanel{
         //this class corresponds to the chessboard
         final List<TilePanel> boardTiles;
@@ -145,7 +308,7 @@ public class Interface {
                         destinationTile = null;
                         playerMovedPiece = null;
                     }
-                    else if (isLeftMouseButton(e)) {
+                    else if (isLeftMouseButton(e) && !computerThinking && !isComputerTurn()) {
                         if (sourceTile == null) {
 
                             // first click
@@ -176,6 +339,7 @@ public class Interface {
                             @Override
                             public void run() {
                                 boardPanel.drawBoard(chessBoard);
+                                moveComputerIfNeeded();
                             }
                         });
                     }
@@ -0,0 +1,418 @@
+package com.chess.uci;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.EncodedMove;
+import com.chess.engine.board.Fen;
+import com.chess.engine.board.Move;
+import com.chess.engine.book.OpeningBook;
+import com.chess.engine.endgame.Bitbases;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.search.AlphaBetaSearch;
+import com.chess.engine.search.SearchLimits;
+import com.chess.engine.search.SearchResult;
+import com.chess.engine.search.TimeManager;
+import com.chess.engine.search.TranspositionTable;
+import com.chess.engine.user.MoveTransition;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+//Universal Chess Interface front end: reads commands from a stream and answers on another,
+//so the engine runs under match runners and on machines without a display. Searches run on
+//their own thread, the input thread stays free to take stop, ponderhit and quit.
+public class UciEngine {
+
+    private static final String NAME = "JChess";
+    private static final String AUTHOR = "JChess developers";
+    private static final int MAX_HASH_SIZE = 1024;
+    private static final int MAX_THREADS = 64;
+
+    private final BufferedReader input;
+    private final PrintStream output;
+
+    private int hashSize = AlphaBetaSearch.DEFAULT_HASH_SIZE;
+    private int threads = 1;
+    private AlphaBetaSearch search;
+    private Board board = Board.createStandardBoard();
+    //keys of the positions before board since the last capture or pawn move, for repetitions
+    private long[] gameHistory = new long[0];
+    //played instead of searching while the game is in the book and OwnBook is on
+    private OpeningBook book;
+    private boolean ownBook;
+    private final Random bookRandom = new Random();
+    //known endings, kept when the search is replaced
+    private Bitbases bitbases;
+    private Thread searchThread;
+    //released by stop, go infinite and go ponder must not answer before
+    private CountDownLatch stopSignal;
+    //a ponder hit only releases a search that has limits of its own
+    private boolean infinite;
+
+    public UciEngine(final BufferedReader input, final PrintStream output) {
+        this.input = input;
+        this.output = output;
+        this.search = createSearch();
+    }
+
+    //usage: JChess uci, talks UCI over standard input and output
+    public static void main(final String[] args) throws IOException {
+        new UciEngine(new BufferedReader(new InputStreamReader(System.in)), System.out).run();
+    }
+
+    //handles commands until quit or the end of the input
+    public void run() throws IOException {
+        String line;
+        while((line = this.input.readLine()) != null) {
+            if(!handle(line.trim())) {
+                break;
+            }
+        }
+        stopSearch();
+    }
+
+    //false once the engine has to quit
+    boolean handle(final String line) {
+        final String[] tokens = line.split("\\s+");
+        switch(tokens[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author " + AUTHOR);
+                send("option name Hash type spin default " + AlphaBetaSearch.DEFAULT_HASH_SIZE + " min 1 max " + MAX_HASH_SIZE);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                //the GUI decides when to ponder, the option only tells it that the engine can
+                send("option name Ponder type check default false");
+                send("option name OwnBook type check default false");
+                send("option name BookFile type string default <empty>");
+                send("option name BitbaseFile type string default <empty>");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(tokens);
+                break;
+            case "ucinewgame":
+                stopSearch();
+                this.search.newGame();
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                try {
+                    go(tokens);
+                } catch(final NumberFormatException e) {
+                    send("info string invalid go command");
+                }
+                break;
+            case "ponderhit":
+                ponderHit();
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "quit":
+                return false;
+            default:
+                //unknown commands are ignored, as the protocol asks
+                break;
+        }
+        return true;
+    }
+
+    private void setOption(final String[] tokens) {
+        //setoption name <name> value <value>
+        final int valueIndex = indexOf(tokens, "value");
+        if(tokens.length < 3 || valueIndex < 0 || valueIndex + 1 >= tokens.length) {
+            return;
+        }
+        final String name = String.join(" ", Arrays.copyOfRange(tokens, 2, valueIndex));
+        final String value = String.join(" ", Arrays.copyOfRange(tokens, valueIndex + 1, tokens.length));
+        if(name.equalsIgnoreCase("Ponder")) {
+            return;
+        }
+        if(name.equalsIgnoreCase("OwnBook")) {
+            this.ownBook = Boolean.parseBoolean(value);
+            return;
+        }
+        if(name.equalsIgnoreCase("BookFile")) {
+            setBook(value);
+            return;
+        }
+        if(name.equalsIgnoreCase("BitbaseFile")) {
+            setBitbases(value);
+            return;
+        }
+        try {
+            final int number = Integer.parseInt(value);
+            if(name.equalsIgnoreCase("Hash")) {
+                this.hashSize = Math.max(1, Math.min(number, MAX_HASH_SIZE));
+            } else if(name.equalsIgnoreCase("Threads")) {
+                this.threads = Math.max(1, Math.min(number, MAX_THREADS));
+            } else {
+                return;
+            }
+            this.search = createSearch();
+        } catch(final NumberFormatException e) {
+            send("info string invalid value " + value);
+        }
+    }
+
+    private void setBook(final String path) {
+        this.book = null;
+        if(path.isEmpty() || path.equals("<empty>")) {
+            return;
+        }
+        try {
+            this.book = OpeningBook.open(Paths.get(path));
+        } catch(final IOException e) {
+            send("info string can not open book " + path + ": " + e.getMessage());
+        }
+    }
+
+    //a file that does not exist yet is generated first, which takes a few seconds
+    private void setBitbases(final String path) {
+        this.bitbases = null;
+        if(!path.isEmpty() && !path.equals("<empty>")) {
+            try {
+                this.bitbases = Bitbases.loadOrGenerate(Paths.get(path));
+            } catch(final IOException e) {
+                send("info string can not open bitbases " + path + ": " + e.getMessage());
+            }
+        }
+        this.search.setBitbases(this.bitbases);
+    }
+
+    private void setPosition(final String[] tokens) {
+        //position startpos|fen <fen> [moves <move>...]
+        final int movesIndex = indexOf(tokens, "moves");
+        final int end = movesIndex < 0 ? tokens.length : movesIndex;
+        final Board.Builder builder;
+        if(tokens.length > 1 && tokens[1].equals("fen")) {
+            builder = Fen.parse(String.join(" ", Arrays.copyOfRange(tokens, 2, end)));
+        } else {
+            builder = Fen.parse(Fen.START_POSITION);
+        }
+        if(builder == null) {
+            send("info string invalid position");
+            return;
+        }
+        Board position = builder.build();
+        final long[] history = new long[Math.max(0, tokens.length - end - 1)];
+        int historyLength = 0;
+        for(int i = end + 1; i < tokens.length; i++) {
+            final Move move = findMove(position, tokens[i]);
+            final MoveTransition transition = move == null ? null : position.currentPlayer().makeMove(move);
+            if(transition == null || !transition.getMoveStatus().isDone()) {
+                send("info string illegal move " + tokens[i]);
+                break;
+            }
+            //positions before a capture or pawn move can not come back
+            final int encodedMove = move.encode();
+            if(EncodedMove.isCapture(encodedMove) || EncodedMove.getMovedPieceType(encodedMove) == PieceType.PAWN) {
+                historyLength = 0;
+            } else {
+                history[historyLength++] = position.getZobristKey();
+            }
+            position = transition.getTransitionBoard();
+        }
+        this.board = position;
+        this.gameHistory = Arrays.copyOf(history, historyLength);
+    }
+
+    private void go(final String[] tokens) {
+        final SearchLimits.Builder limits = new SearchLimits.Builder();
+        final boolean white = this.board.currentPlayer().getColor().isWhite();
+        long time = -1;
+        long increment = 0;
+        int movesToGo = 0;
+        long moveTime = -1;
+        boolean infinite = false;
+        boolean ponder = false;
+        for(int i = 1; i < tokens.length; i++) {
+            final String value = i + 1 < tokens.length ? tokens[i + 1] : "0";
+            switch(tokens[i]) {
+                case "wtime":
+                    time = white ? Long.parseLong(value) : time;
+                    break;
+                case "btime":
+                    time = white ? time : Long.parseLong(value);
+                    break;
+                case "winc":
+                    increment = white ? Long.parseLong(value) : increment;
+                    break;
+                case "binc":
+                    increment = white ? increment : Long.parseLong(value);
+                    break;
+                case "movestogo":
+                    movesToGo = Integer.parseInt(value);
+                    break;
+                case "movetime":
+                    moveTime = Long.parseLong(value);
+                    break;
+                case "depth":
+                    limits.setDepth(Math.max(1, Math.min(Integer.parseInt(value), SearchLimits.MAX_DEPTH)));
+                    break;
+                case "nodes":
+                    limits.setNodes(Long.parseLong(value));
+                    break;
+                case "infinite":
+                    infinite = true;
+                    break;
+                case "ponder":
+                    ponder = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+        //a book move needs no search, analysis and pondering still search
+        if(this.ownBook && this.book != null && !infinite && !ponder) {
+            final Move bookMove = this.book.pickMove(this.board, this.bookRandom);
+            if(bookMove != Move.NULL_MOVE) {
+                send("bestmove " + EncodedMove.toString(bookMove.encode()));
+                return;
+            }
+        }
+        if(moveTime >= 0) {
+            limits.setTime(TimeManager.allocate(moveTime));
+        } else if(time >= 0 && !infinite) {
+            limits.setTime(TimeManager.allocate(time, increment, movesToGo));
+        }
+        final Board root = this.board;
+        final AlphaBetaSearch search = this.search;
+        search.setGameHistory(this.gameHistory);
+        final SearchLimits searchLimits = limits.build();
+        final boolean pondering = ponder;
+        final CountDownLatch stopSignal = new CountDownLatch(infinite || ponder ? 1 : 0);
+        this.stopSignal = stopSignal;
+        this.infinite = infinite;
+        final CountDownLatch started = new CountDownLatch(1);
+        this.searchThread = new Thread(() -> {
+            SearchResult result = null;
+            try {
+                //the limits of a ponder search start to count at the ponder hit
+                result = pondering ? search.ponder(root, searchLimits, started) :
+                        search.search(root, searchLimits, started);
+                //an infinite or pondering search that ran out of depth still waits for stop or the hit
+                stopSignal.await();
+            } catch(final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch(final RuntimeException e) {
+                send("info string search failed: " + e);
+            } finally {
+                //the GUI waits for a best move whatever happened, 0000 if there is none
+                started.countDown();
+                send(bestMove(result));
+            }
+        }, "uci-search");
+        this.searchThread.start();
+        //a stop or ponderhit read right after this go must find the search running
+        try {
+            started.await();
+        } catch(final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //the opponent played the move pondered on, the search goes on under the limits of its go
+    private void ponderHit() {
+        if(this.searchThread == null) {
+            return;
+        }
+        this.search.ponderHit();
+        if(!this.infinite) {
+            this.stopSignal.countDown();
+        }
+    }
+
+    //stops a running search and waits until it sent its best move
+    private void stopSearch() {
+        if(this.searchThread == null) {
+            return;
+        }
+        this.stopSignal.countDown();
+        //stop again until the thread ends, a search still starting up would miss a single stop
+        while(this.searchThread.isAlive()) {
+            this.search.stop();
+            try {
+                this.searchThread.join(10);
+            } catch(final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        this.searchThread = null;
+    }
+
+    private AlphaBetaSearch createSearch() {
+        final AlphaBetaSearch search = new AlphaBetaSearch(new SearchLimits.Builder().build(),
+                new TranspositionTable(this.hashSize), this.threads);
+        search.setSearchListener(result -> send(info(result, search)));
+        search.setBitbases(this.bitbases);
+        return search;
+    }
+
+    //with the reply the engine expects when there is one, the GUI may ponder on it
+    private static String bestMove(final SearchResult result) {
+        final int[] principalVariation = result == null ? new int[0] : result.getEncodedPrincipalVariation();
+        final StringBuilder builder = new StringBuilder("bestmove ")
+                .append(EncodedMove.toString(principalVariation.length == 0 ? EncodedMove.NO_MOVE : principalVariation[0]));
+        if(principalVariation.length >= 2) {
+            builder.append(" ponder ").append(EncodedMove.toString(principalVariation[1]));
+        }
+        return builder.toString();
+    }
+
+    private static String info(final SearchResult result, final AlphaBetaSearch search) {
+        final StringBuilder builder = new StringBuilder("info depth ").append(result.getDepth());
+        if(result.isMateScore()) {
+            builder.append(" score mate ").append(result.getMateInMoves());
+        } else {
+            builder.append(" score cp ").append(result.getScore());
+        }
+        builder.append(" nodes ").append(result.getNodes())
+               .append(" nps ").append(result.getNodesPerSecond())
+               .append(" time ").append(result.getTimeMillis())
+               .append(" hashfull ").append(search.getTranspositionTable().hashFull())
+               .append(" pv");
+        for(final int move : result.getEncodedPrincipalVariation()) {
+            builder.append(' ').append(EncodedMove.toString(move));
+        }
+        return builder.toString();
+    }
+
+    //the legal move written in coordinate notation, e.g. e2e4 or e7e8q
+    private static Move findMove(final Board board, final String notation) {
+        for(final Move move : board.currentPlayer().getLegalMoves()) {
+            if(EncodedMove.toString(move.encode()).equals(notation)) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(final String[] tokens, final String token) {
+        for(int i = 0; i < tokens.length; i++) {
+            if(tokens[i].equals(token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private synchronized void send(final String message) {
+        this.output.println(message);
+        this.output.flush();
+    }
+}